@@ -2,24 +2,31 @@ package Project;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
+import org.testng.ITestResult;
+import org.testng.Reporter;
 import org.testng.annotations.*;
 import java.io.File;
-import java.io.FileWriter;
+import java.lang.reflect.Method;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
-import org.apache.commons.io.FileUtils;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
 
 /**
  * Additional Test Cases for External PO Reference Page
@@ -29,94 +36,335 @@ import org.openqa.selenium.StaleElementReferenceException;
  * @author Test Automation Team
  * @version 2.1 - Fixed browser crash and modal selection issues
  */
+@Listeners({ PerformanceBudgetListener.class, ScreenshotFailureListener.class })
 public class AdditionalExternalPOTests {
     
-    private WebDriver driver;
-    private WebDriverWait wait;
-    private static final String BASE_URL = "http://216.48.184.249:5274";
-    private static final String LOGIN_URL = BASE_URL + "/login";
-    private static final String INBOUND_URL = BASE_URL + "/inventory/inbound";
+    private static final TestLog log = TestLog.get(AdditionalExternalPOTests.class);
+    
+    // One driver, wait and screenshot namespace per test thread
+    private final ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private final ThreadLocal<WebDriverWait> wait = new ThreadLocal<>();
+    private final ThreadLocal<UiWaits> uiWaits = new ThreadLocal<>();
+    private final ThreadLocal<List<String>> budgetBreaches = ThreadLocal.withInitial(ArrayList::new);
+    private static final AtomicInteger TEST_SEQUENCE = new AtomicInteger();
+    static final String LOGIN_PATH = "/login";
+    static final String INBOUND_PATH = "/inventory/inbound";
     private static final int TIMEOUT = 8;
+    private static final File SESSION_STATE_FILE = new File("target/aivoa-session-" + (TestConfig.useStub() ? "stub" : "remote") + ".json");
+    private static final File LOCATOR_CACHE_FILE = new File("locator-cache.json");
+    private static final File PERF_BASELINE_FILE = new File(TestConfig.stringValue("aivoa.perf.baseline",
+        "perf-baseline-" + (TestConfig.useStub() ? "stub" : "remote") + ".json"));
+    
+    // Real environment, or the embedded stub when aivoa.env=stub
+    private static StubServer stubServer;
+    private static String baseUrl;
+    
+    // Shared login session and warm browsers for the whole suite
+    private static SessionBootstrap session;
+    private static ApiAuth apiAuth;
+    private static DriverPool driverPool;
+    private static LocatorCache locatorCache;
+    private static ScreenshotService screenshots;
+    private static ScreenshotBuffer screenshotBuffer;
+    private static PagePerformance pagePerformance;
+    private static EnvironmentBreaker breaker;
+    
+    // How Chrome is launched (standard, headless, lean) and what its sessions cost
+    private static BrowserProfile browserProfile;
+    private static BrowserResources browserResources;
+    
+    // Starting state of every form test: External PO form open and empty
+    private UiCheckpoint externalPoForm;
+    
+    // Tests in this group drive the login form themselves
+    private static final String UI_LOGIN_GROUP = "ui-login";
+    
+    // Tests in this group run once per data row on a reused, cleared form
+    private static final String DATA_DRIVEN_GROUP = "data-driven";
+    private static final File PO_DATASET = new File(TestConfig.stringValue("aivoa.data.poFormats", "src/test/resources/data/po-formats.csv"));
+    
+    // Rows run, rows that started on the form a previous row left open, and rows that left it open
+    private static final AtomicInteger DATA_ROWS = new AtomicInteger();
+    private static final AtomicInteger DATA_ROWS_REUSED = new AtomicInteger();
+    private static final AtomicInteger DATA_ROWS_LEFT_OPEN = new AtomicInteger();
+    private static volatile boolean lastDataRowLeftOpen;
     
     // Login credentials
-    private static final String USERNAME = "testing@aivoa.net";
-    private static final String PASSWORD = "password123";
+    static final String USERNAME = "testing@aivoa.net";
+    static final String PASSWORD = "password123";
     
     // Login page locators
-    private static final By USERNAME_FIELD = By.xpath("//input[@type='email' or @name='email' or @placeholder='Email' or contains(@id, 'email')]");
-    private static final By PASSWORD_FIELD = By.xpath("//input[@type='password' or @name='password' or @placeholder='Password']");
-    private static final By LOGIN_BUTTON = By.xpath("//button[@type='submit' or contains(text(), 'Login') or contains(text(), 'Sign in')]");
+    static final By USERNAME_FIELD = By.xpath("//input[@type='email' or @name='email' or @placeholder='Email' or contains(@id, 'email')]");
+    static final By PASSWORD_FIELD = By.xpath("//input[@type='password' or @name='password' or @placeholder='Password']");
+    static final By LOGIN_BUTTON = By.xpath("//button[@type='submit' or contains(text(), 'Login') or contains(text(), 'Sign in')]");
     
     // Inbound page locators
-    private static final By NEW_UNPLANNED_RECEIPT_BUTTON = By.xpath("(//button[normalize-space()='New Unplanned Receipt'])[1]");
+    static final By NEW_UNPLANNED_RECEIPT_BUTTON = By.xpath("(//button[normalize-space()='New Unplanned Receipt'])[1]");
     
-    // IMPROVED: Multiple selectors for External PO Reference
-    private static final By[] EXTERNAL_PO_OPTION_SELECTORS = {
+    // IMPROVED: Multiple selectors for External PO Reference, raced in one script
+    private static final MultiLocator EXTERNAL_PO_OPTION = new MultiLocator("external-po-option",
         By.xpath("//div[contains(text(), 'External PO Reference')]"),
         By.xpath("//button[contains(text(), 'External PO Reference')]"),
         By.xpath("//*[contains(text(), 'External PO')]"),
         By.xpath("//div[@class='option' and contains(., 'External')]"),
         By.xpath("//*[@role='button' and contains(., 'External PO')]")
-    };
+    );
     
     // Form field locators
-    private static final By EXTERNAL_PO_NUMBER = By.xpath("(//input[@id='po-number'])[1]");
-    private static final By SUPPLIER_NAME = By.xpath("//input[@placeholder='Supplier Name' or contains(@name, 'supplier') or contains(@id, 'supplier')]");
-    private static final By BOL_AWR_NUMBER = By.xpath("//input[contains(@placeholder, 'BOL') or contains(@name, 'bol') or contains(@id, 'bol')]");
-    private static final By DELIVERY_DATE = By.xpath("//input[@placeholder='12 / 11 / yyyy' or contains(@name, 'date') or contains(@id, 'delivery')]");
-    private static final By NEXT_BUTTON = By.xpath("//button[contains(text(), 'Next')]");
+    static final By EXTERNAL_PO_NUMBER = By.xpath("(//input[@id='po-number'])[1]");
+    static final By SUPPLIER_NAME = By.xpath("//input[@placeholder='Supplier Name' or contains(@name, 'supplier') or contains(@id, 'supplier')]");
+    static final By BOL_AWR_NUMBER = By.xpath("//input[contains(@placeholder, 'BOL') or contains(@name, 'bol') or contains(@id, 'bol')]");
+    static final By DELIVERY_DATE = By.xpath("//input[@placeholder='12 / 11 / yyyy' or contains(@name, 'date') or contains(@id, 'delivery')]");
+    static final By NEXT_BUTTON = By.xpath("//button[contains(text(), 'Next')]");
+    
+    // Logical field names accepted by fillForm(), in the order a user fills them
+    static final Map<String, By> FORM_FIELD_LOCATORS = formFieldLocators();
+    
+    // Fields cleared between data rows
+    private static final List<By> FORM_FIELDS = new ArrayList<>(FORM_FIELD_LOCATORS.values());
     
     // File upload locators
-    private static final By UPLOAD_FILES_BUTTON = By.xpath("//button[contains(text(), 'Upload files')]");
-    private static final By FILE_INPUT = By.xpath("//input[@type='file']");
-    private static final By UPLOADED_FILES_LIST = By.xpath("//div[contains(@class, 'file')] | //*[contains(@class, 'uploaded')] | //*[contains(text(), '.pdf') or contains(text(), '.png') or contains(text(), '.jpg')]");
+    static final By UPLOAD_FILES_BUTTON = By.xpath("//button[contains(text(), 'Upload files')]");
+    static final By FILE_INPUT = By.xpath("//input[@type='file']");
     
     @BeforeClass
     public void setupClass() {
-        System.out.println("╔════════════════════════════════════════╗");
-        System.out.println("║  Additional Test Cases                 ║");
-        System.out.println("║  TC004 & TC036                        ║");
-        System.out.println("╚════════════════════════════════════════╝\n");
+        log.banner("Additional Test Cases", "TC004 & TC036");
         
         // Create screenshots directory
         File screenshotDir = new File("screenshots");
         if (!screenshotDir.exists()) {
             screenshotDir.mkdirs();
-            System.out.println("✓ Created screenshots directory");
+            log.info("✓ Created screenshots directory");
         }
         
         // Create test files directory
         File testFilesDir = new File("test-files");
         if (!testFilesDir.exists()) {
             testFilesDir.mkdirs();
-            System.out.println("✓ Created test-files directory\n");
+            log.info("✓ Created test-files directory");
+        }
+    }
+    
+    /**
+     * Log in once for the whole suite and save the session for reuse
+     */
+    @BeforeSuite
+    public void setupSuite() {
+        setupSuite(TestConfig.poolSize());
+    }
+    
+    /**
+     * Suite setup with a browser pool of the given size, e.g. one browser per load user
+     */
+    void setupSuite(int poolSize) {
+        if (TestConfig.useStub()) {
+            stubServer = StubServer.fromConfig();
+            baseUrl = stubServer.baseUrl();
+        } else {
+            baseUrl = TestConfig.remoteBaseUrl();
+        }
+        log.info("✓ Target environment: {}", baseUrl);
+        
+        session = new SessionBootstrap(baseUrl, LOGIN_PATH, SESSION_STATE_FILE);
+        apiAuth = new ApiAuth(baseUrl, USERNAME, PASSWORD);
+        externalPoForm = new UiCheckpoint("external-po-form", baseUrl,
+            d -> ReceiptForm.isOpen(d, EXTERNAL_PO_NUMBER),
+            this::resetReceiptForm,
+            d -> {
+                if (!session.restore(d)) {
+                    session.login(d, x -> authenticate());
+                }
+            },
+            d -> openReceiptFormInCurrentBrowser());
+        browserProfile = BrowserProfile.fromConfig();
+        browserResources = BrowserResources.isEnabled()
+            ? new BrowserResources(browserProfile.id(), new File("target/browser-resources-" + browserProfile.id() + ".json")) : null;
+        log.info("✓ Browser profile: {}", browserProfile.id());
+        driverPool = new DriverPool(this::createDriver, poolSize);
+        locatorCache = new LocatorCache(LOCATOR_CACHE_FILE);
+        screenshots = new ScreenshotService(new File("screenshots"));
+        screenshotBuffer = new ScreenshotBuffer(screenshots);
+        ScreenshotBuffer.activate(screenshotBuffer);
+        pagePerformance = PagePerformance.isEnabled() ? new PagePerformance(PERF_BASELINE_FILE) : null;
+        
+        // Don't start any browser against a host that doesn't answer
+        breaker = EnvironmentBreaker.isEnabled() ? new EnvironmentBreaker(baseUrl, LOGIN_PATH) : null;
+        if (breaker != null && !breaker.probeUpFront()) {
+            log.warn("⚠ Skipping suite login and browser warm-up, environment unreachable");
+            return;
+        }
+        
+        if (session.hasValidState()) {
+            log.info("✓ Reusing saved login session: {}", SESSION_STATE_FILE.getPath());
+        } else {
+            try {
+                attachDriver(driverPool.acquire());
+                session.login(getDriver(), d -> authenticate());
+                log.info("✓ Login session saved for the suite");
+            } catch (Throwable e) {
+                log.warn("⚠ Suite login failed, tests will log in individually: {}", e.getMessage());
+            } finally {
+                tearDown();
+            }
+        }
+        
+        driverPool.warmUp(TestConfig.poolWarmSize());
+    }
+    
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        if (driverPool != null) {
+            driverPool.shutdown();
+        }
+        StepSpans.close();
+        if (screenshots != null) {
+            // Wait for queued screenshots to reach the disk
+            screenshots.shutdown(30_000);
+        }
+        if (locatorCache != null) {
+            locatorCache.save();
+            log.open("LOCATOR CACHE");
+            log.stepLines(locatorCache.report());
+            log.close();
+        }
+        if (externalPoForm != null) {
+            log.open("CHECKPOINT RESTORES: external-po-form");
+            log.stepLines(externalPoForm.report());
+            log.close();
+        }
+        if (browserResources != null) {
+            log.open("BROWSER RESOURCES: " + browserProfile.id());
+            log.stepLines(browserResources.report());
+            log.close();
+        }
+        if (breaker != null) {
+            log.open("ENVIRONMENT CIRCUIT BREAKER");
+            log.stepLines(breaker.report());
+            log.close();
+        }
+        if (pagePerformance != null) {
+            List<String> regressions = pagePerformance.save();
+            log.open("PAGE PERFORMANCE (p75, ms)");
+            log.stepLines(pagePerformance.report());
+            for (String regression : regressions) {
+                log.stepWarn("⚠ Regression: {}", regression);
+            }
+            log.close();
+        }
+        if (stubServer != null) {
+            stubServer.stop();
         }
+        AsyncLogAppender.instance().flush(5_000);
     }
     
     @BeforeMethod
-    public void setUp() {
-        System.out.println("\n┌────────────────────────────────────────┐");
-        System.out.println("│  Setting up test environment          │");
-        System.out.println("└────────────────────────────────────────┘");
-        
-        // FIXED: Add ChromeOptions to prevent crashes
-        ChromeOptions options = new ChromeOptions();
-        options.addArguments("--disable-dev-shm-usage"); // Prevent memory issues
-        options.addArguments("--no-sandbox"); // Bypass OS security model
-        options.addArguments("--disable-gpu"); // Disable GPU acceleration
-        options.addArguments("--remote-allow-origins=*"); // Fix CORS issues
-        
-        // Initialize ChromeDriver with options
-        driver = new ChromeDriver(options);
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
-        wait = new WebDriverWait(driver, Duration.ofSeconds(TIMEOUT));
-        
-        System.out.println("✓ Browser launched successfully");
-        
-        // Login to application
-        performLogin();
+    public void setUp(Method method, ITestResult result) {
+        log.section("Setting up test environment");
+        
+        // Unique id per test invocation, used to keep screenshots apart
+        TestContext.setTestId(method.getName() + "-" + TEST_SEQUENCE.incrementAndGet());
+        result.setAttribute(ScreenshotFailureListener.TEST_ID_ATTRIBUTE, TestContext.testId());
+        
+        if (breaker == null) {
+            prepareTest(method, result);
+            return;
+        }
+        // Skips at once while the environment is known to be down
+        breaker.beforeTest();
+        try {
+            prepareTest(method, result);
+            breaker.setupSucceeded();
+        } catch (Throwable e) {
+            breaker.setupFailed(e);
+            throw e;
+        }
+    }
+    
+    private void prepareTest(Method method, ITestResult result) {
+        // The dedicated UI login test starts from a signed-out browser
+        Test test = method.getAnnotation(Test.class);
+        if (test != null && Arrays.asList(test.groups()).contains(UI_LOGIN_GROUP)) {
+            attachDriver(driverPool.acquire());
+            return;
+        }
+        
+        // Prefer a browser that still shows the form, then restore it the cheapest way that works
+        attachDriver(driverPool.acquireWithState());
+        UiCheckpoint.Restore restore = externalPoForm.restore(getDriver());
+        result.setAttribute("checkpoint", restore.toString());
+        if (test != null && Arrays.asList(test.groups()).contains(DATA_DRIVEN_GROUP)) {
+            DATA_ROWS.incrementAndGet();
+            if (restore.getStrategy() == UiCheckpoint.Strategy.REUSE) {
+                DATA_ROWS_REUSED.incrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Empty the open form for the next test and take the previous test's
+     * validation state off its fields. A form that lists uploaded files, or
+     * still shows a validation message after that, can't be reused: a stale
+     * message would satisfy the next test's error checks without Next ever
+     * validating.
+     */
+    private boolean resetReceiptForm(WebDriver d) {
+        if (!new UploadVerifier(d, FILE_INPUT).listFiles().isEmpty()) {
+            return false;
+        }
+        int cleared = ReceiptForm.clear(d, FORM_FIELDS);
+        int errorsCleared = ValidationErrors.clear(d, FORM_FIELDS);
+        if (hasValidationState(d)) {
+            log.info("✗ Open form still shows validation errors, not reusing it");
+            return false;
+        }
+        log.info("✓ Reusing open form, {} field(s) cleared, {} validation error(s) removed", cleared, errorsCleared);
+        return true;
+    }
+    
+    private static boolean hasValidationState(WebDriver d) {
+        if (!ValidationErrors.collect(d).isEmpty()) {
+            return true;
+        }
+        for (By field : FORM_FIELDS) {
+            if (ValidationErrors.hasFieldError(d, field)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Borrow a browser for the calling thread without opening any page
+     */
+    void borrowDriver() {
+        attachDriver(driverPool.acquire());
+    }
+    
+    /**
+     * Environment the suite runs against (remote AIVOA or the local stub)
+     */
+    static String getBaseUrl() {
+        return baseUrl;
+    }
+    
+    /**
+     * Borrow a browser, sign in and open the External PO receipt form
+     */
+    void openReceiptForm() {
+        attachDriver(driverPool.acquire());
+        openReceiptFormInCurrentBrowser();
+    }
+    
+    private void openReceiptFormInCurrentBrowser() {
+        log.info("✓ Browser ready [{} on {}]", TestContext.testId(), Thread.currentThread().getName());
+        
+        // Reuse the suite login session, logging in only if none is available
+        if (session.restore(getDriver())) {
+            log.info("✓ Restored saved login session");
+        } else {
+            session.login(getDriver(), d -> authenticate());
+        }
         
         // Navigate to Inbound page
         navigateToInboundPage();
@@ -132,317 +380,522 @@ public class AdditionalExternalPOTests {
         }
     }
     
-    @AfterMethod
+    @AfterMethod(alwaysRun = true)
+    public void tearDown(ITestResult result) {
+        WebDriver current = driver.get();
+        if (current != null && browserResources != null) {
+            browserResources.sample(current);
+        }
+        List<String> groups = Arrays.asList(result.getMethod().getGroups());
+        boolean keepState = !groups.contains(UI_LOGIN_GROUP)
+            && (groups.contains(DATA_DRIVEN_GROUP) || result.getStatus() == ITestResult.SUCCESS);
+        if (current != null && keepState) {
+            // Keep the open form for the next test's checkpoint restore
+            driver.remove();
+            wait.remove();
+            uiWaits.remove();
+            budgetBreaches.remove();
+            TestContext.clear();
+            driverPool.releaseKeepingState(current);
+            return;
+        }
+        tearDown();
+    }
+    
     public void tearDown() {
-        if (driver != null) {
-            try {
-                driver.quit();
-                System.out.println("✓ Browser closed\n");
-            } catch (Exception e) {
-                System.out.println("⚠ Browser already closed or unreachable\n");
-            }
+        WebDriver current = driver.get();
+        driver.remove();
+        wait.remove();
+        uiWaits.remove();
+        budgetBreaches.remove();
+        TestContext.clear();
+        if (current != null) {
+            // Reset and return the browser to the pool instead of quitting it
+            driverPool.release(current);
+            log.info("✓ Browser returned to pool");
+        }
+    }
+    
+    /**
+     * Report page budget breaches of the test; with aivoa.perf.enforce=true
+     * a passed test is turned into a failure. Called by
+     * PerformanceBudgetListener before the result is reported: from
+     * an @AfterMethod the status change would come too late.
+     */
+    void checkBudgets(ITestResult result) {
+        List<String> breaches = budgetBreaches.get();
+        if (breaches.isEmpty()) {
+            return;
+        }
+        result.setAttribute("budgetBreaches", new ArrayList<>(breaches));
+        for (String breach : breaches) {
+            Reporter.log("[budget] " + breach);
+        }
+        if (TestConfig.booleanValue("aivoa.perf.enforce", false) && result.getStatus() == ITestResult.SUCCESS) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError("Page performance budget exceeded: " + breaches));
         }
     }
     
     @AfterClass
     public void tearDownClass() {
-        System.out.println("\n╔════════════════════════════════════════╗");
-        System.out.println("║  Test Suite Execution Completed       ║");
-        System.out.println("╚════════════════════════════════════════╝");
+        log.open("WAIT TIMINGS");
+        log.stepLines(UiWaits.summary());
+        log.close();
+        
+        log.open("STEP TIMINGS");
+        log.stepLines(StepSpans.summary());
+        log.close();
+        
+        log.banner("Test Suite Execution Completed");
     }
     
     /**
-     * Perform login to AIVOA LSCRM application
+     * Driver owned by the current test thread
      */
-    private void performLogin() {
-        System.out.println("\n┌─ LOGIN PROCESS ────────────────────────┐");
-        
-        try {
-            driver.get(LOGIN_URL);
-            System.out.println("│ ✓ Navigated to login page");
-            
-            WebElement usernameField = wait.until(
-                ExpectedConditions.presenceOfElementLocated(USERNAME_FIELD)
-            );
-            usernameField.clear();
-            usernameField.sendKeys(USERNAME);
-            System.out.println("│ ✓ Username: " + USERNAME);
-            
-            WebElement passwordField = driver.findElement(PASSWORD_FIELD);
-            passwordField.clear();
-            passwordField.sendKeys(PASSWORD);
-            System.out.println("│ ✓ Password: " + PASSWORD);
-            
-            WebElement loginButton = driver.findElement(LOGIN_BUTTON);
-            loginButton.click();
-            System.out.println("│ ✓ Clicked login button");
-            
-            // Wait for navigation away from login page
-            wait.until(ExpectedConditions.not(ExpectedConditions.urlContains("/login")));
-            System.out.println("│ ✓ Login successful");
-            System.out.println("└────────────────────────────────────────┘");
-            
-        } catch (Exception e) {
-            System.out.println("│ ✗ Login failed: " + e.getMessage());
-            System.out.println("└────────────────────────────────────────┘");
-            takeScreenshot("error_login");
-            Assert.fail("Failed to login: " + e.getMessage());
+    WebDriver getDriver() {
+        return driver.get();
+    }
+    
+    /**
+     * Explicit wait bound to the current test thread's driver
+     */
+    private WebDriverWait getWait() {
+        return wait.get();
+    }
+    
+    /**
+     * Cheapest known locator for a logical element, learned from the given fallback
+     */
+    By locate(String page, String element, By fallback) {
+        return locatorCache.resolve(getDriver(), page, element, fallback);
+    }
+    
+    private static Map<String, By> formFieldLocators() {
+        Map<String, By> fields = new LinkedHashMap<>();
+        fields.put("External PO Number", EXTERNAL_PO_NUMBER);
+        fields.put("Supplier Name", SUPPLIER_NAME);
+        fields.put("BOL/AWR Number", BOL_AWR_NUMBER);
+        fields.put("Delivery Date", DELIVERY_DATE);
+        return fields;
+    }
+    
+    /**
+     * Record load timings of the page just navigated to
+     */
+    private void recordPageTimings(String page) {
+        if (pagePerformance != null) {
+            flagBudgets(pagePerformance.afterNavigation(getDriver(), page));
         }
     }
     
     /**
-     * Navigate to Inbound page
+     * Page time before an in-page action, for recordActionTimings()
      */
-    private void navigateToInboundPage() {
-        System.out.println("\n┌─ INBOUND PAGE NAVIGATION ──────────────┐");
-        
-        try {
-            driver.get(INBOUND_URL);
-            System.out.println("│ ✓ Navigated to Inbound page");
-            
-            // Wait for page to load
-            wait.until(ExpectedConditions.presenceOfElementLocated(NEW_UNPLANNED_RECEIPT_BUTTON));
-            System.out.println("└────────────────────────────────────────┘");
-            
-        } catch (Exception e) {
-            System.out.println("│ ✗ Navigation failed: " + e.getMessage());
-            System.out.println("└────────────────────────────────────────┘");
-            takeScreenshot("error_navigation");
-            Assert.fail("Failed to navigate: " + e.getMessage());
+    private double markAction() {
+        return pagePerformance == null ? 0 : PagePerformance.mark(getDriver());
+    }
+    
+    /**
+     * Record what an in-page action cost since markAction()
+     */
+    private void recordActionTimings(String page, double since) {
+        if (pagePerformance != null) {
+            flagBudgets(pagePerformance.afterAction(getDriver(), page, since));
+        }
+    }
+    
+    private void flagBudgets(List<String> breaches) {
+        for (String breach : breaches) {
+            log.stepWarn("⚠ Over budget: {}", breach);
         }
+        budgetBreaches.get().addAll(breaches);
     }
     
     /**
-     * Click on New Unplanned Receipt button with retry logic
+     * DevTools network capture for the current test thread's driver
      */
-    private void clickNewUnplannedReceipt() {
-        System.out.println("\n┌─ NEW UNPLANNED RECEIPT ────────────────┐");
-        
-        int attempts = 0;
-        int maxAttempts = 3;
-        
-        while (attempts < maxAttempts) {
+    private NetworkObserver getNetwork() {
+        return NetworkObserver.of(getDriver());
+    }
+    
+    /**
+     * Event-driven readiness waits bound to the current test thread's driver
+     */
+    private UiWaits getUiWaits() {
+        return uiWaits.get();
+    }
+    
+    private void attachDriver(WebDriver newDriver) {
+        driver.set(newDriver);
+        wait.set(UiWaits.explicitWait(newDriver, Duration.ofSeconds(TIMEOUT)));
+        uiWaits.set(new UiWaits(newDriver, Duration.ofSeconds(TIMEOUT)));
+    }
+    
+    /**
+     * Create a ChromeDriver for the selected browser profile with default timeouts
+     */
+    private WebDriver createDriver() {
+        // Crash-prevention flags plus the profile's headless and lean options
+        WebDriver newDriver = new ChromeDriver(browserProfile.options());
+        browserProfile.configure(newDriver);
+        if (browserResources != null) {
+            browserResources.track(newDriver);
+        }
+        newDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(5));
+        newDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(30));
+        return newDriver;
+    }
+    
+    /**
+     * Sign in over the login API, falling back to the login form if the API is
+     * disabled (aivoa.auth=ui) or unavailable
+     */
+    void authenticate() {
+        if (ApiAuth.isEnabled()) {
             try {
-                WebElement newReceiptBtn = wait.until(
-                    ExpectedConditions.elementToBeClickable(NEW_UNPLANNED_RECEIPT_BUTTON)
+                StepSpans.run("login.api", () -> apiAuth.signIn(getDriver()));
+                return;
+            } catch (Exception e) {
+                log.warn("⚠ API sign-in failed, using the login form: {}", e.getMessage());
+            }
+        }
+        performLogin();
+    }
+    
+    /**
+     * Perform login to AIVOA LSCRM application
+     */
+    private void performLogin() {
+        StepSpans.run("login", () -> {
+            log.open("LOGIN PROCESS");
+            
+            try {
+                getDriver().get(baseUrl + LOGIN_PATH);
+                log.step("✓ Navigated to login page");
+                
+                WebElement usernameField = getWait().until(
+                    ExpectedConditions.presenceOfElementLocated(locate("login", "username", USERNAME_FIELD))
                 );
+                recordPageTimings("login");
+                usernameField.clear();
+                usernameField.sendKeys(USERNAME);
+                log.step("✓ Username: {}", USERNAME);
                 
-                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", newReceiptBtn);
-                Thread.sleep(300);
+                WebElement passwordField = getDriver().findElement(locate("login", "password", PASSWORD_FIELD));
+                passwordField.clear();
+                passwordField.sendKeys(PASSWORD);
+                log.step("✓ Password: {}", PASSWORD);
                 
-                newReceiptBtn.click();
-                System.out.println("│ ✓ Clicked 'New Unplanned Receipt'");
+                WebElement loginButton = getDriver().findElement(locate("login", "submit", LOGIN_BUTTON));
+                loginButton.click();
+                log.step("✓ Clicked login button");
                 
-                Thread.sleep(1500); // Wait for modal to appear
-                System.out.println("└────────────────────────────────────────┘");
-                return;
+                // Wait for navigation away from login page
+                getWait().until(ExpectedConditions.not(ExpectedConditions.urlContains(LOGIN_PATH)));
+                log.step("✓ Login successful");
+                log.close();
                 
-            } catch (StaleElementReferenceException e) {
-                attempts++;
-                if (attempts >= maxAttempts) {
-                    System.out.println("│ ✗ Element became stale after " + maxAttempts + " attempts");
-                    throw new RuntimeException(e);
-                }
-                System.out.println("│ ⚠ Element stale, retrying... (attempt " + (attempts + 1) + ")");
             } catch (Exception e) {
-                System.out.println("│ ✗ Failed to click button: " + e.getMessage());
-                System.out.println("└────────────────────────────────────────┘");
-                takeScreenshot("error_new_receipt");
-                Assert.fail("Failed to click New Unplanned Receipt: " + e.getMessage());
+                log.stepError("✗ Login failed: {}", e.getMessage());
+                log.close();
+                takeScreenshot("error_login");
+                Assert.fail("Failed to login: " + e.getMessage());
             }
-        }
+        });
     }
     
     /**
-     * FIXED: Select External PO Reference option with multiple selector attempts
-     * Returns true if successful, false otherwise
+     * Navigate to Inbound page, logging in again if the saved session has expired
      */
-    private boolean selectExternalPOReference() {
-        System.out.println("\n┌─ EXTERNAL PO REFERENCE ────────────────┐");
-        
-        // Try each selector until one works
-        for (int i = 0; i < EXTERNAL_PO_OPTION_SELECTORS.length; i++) {
+    void navigateToInboundPage() {
+        StepSpans.run("inbound.navigate", () -> {
+            log.open("INBOUND PAGE NAVIGATION");
+            
             try {
-                WebElement externalPOOption = wait.until(
-                    ExpectedConditions.elementToBeClickable(EXTERNAL_PO_OPTION_SELECTORS[i])
-                );
+                getDriver().get(baseUrl + INBOUND_PATH);
+                log.step("✓ Navigated to Inbound page");
                 
-                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", externalPOOption);
-                Thread.sleep(300);
+                // Wait for page to load, or for the app to bounce us back to login
+                getWait().until(ExpectedConditions.or(
+                    ExpectedConditions.presenceOfElementLocated(NEW_UNPLANNED_RECEIPT_BUTTON),
+                    ExpectedConditions.urlContains(LOGIN_PATH)
+                ));
                 
-                externalPOOption.click();
-                System.out.println("│ ✓ Selected External PO Reference (selector " + (i + 1) + ")");
-                Thread.sleep(1000);
+                if (session.isLoginRedirect(getSafeCurrentUrl())) {
+                    log.stepWarn("⚠ Saved session expired, logging in again");
+                    log.close();
+                    session.invalidate();
+                    session.login(getDriver(), d -> authenticate());
+                    
+                    log.open("INBOUND PAGE NAVIGATION");
+                    getDriver().get(baseUrl + INBOUND_PATH);
+                    log.step("✓ Navigated to Inbound page");
+                    getWait().until(ExpectedConditions.presenceOfElementLocated(NEW_UNPLANNED_RECEIPT_BUTTON));
+                }
+                recordPageTimings("inbound");
+                log.close();
                 
-                // Verify form loaded by checking for External PO Number field
+            } catch (Exception e) {
+                log.stepError("✗ Navigation failed: {}", e.getMessage());
+                log.close();
+                takeScreenshot("error_navigation");
+                Assert.fail("Failed to navigate: " + e.getMessage());
+            }
+        });
+    }
+    
+    /**
+     * Click on New Unplanned Receipt button with retry logic
+     */
+    void clickNewUnplannedReceipt() {
+        StepSpans.run("receipt.new-unplanned", () -> {
+            log.open("NEW UNPLANNED RECEIPT");
+            
+            int attempts = 0;
+            int maxAttempts = 3;
+            
+            while (attempts < maxAttempts) {
                 try {
-                    wait.until(ExpectedConditions.presenceOfElementLocated(EXTERNAL_PO_NUMBER));
-                    System.out.println("│ ✓ Form loaded and ready");
-                    System.out.println("└────────────────────────────────────────┘");
-                    return true;
+                    WebElement newReceiptBtn = getUiWaits().enabled("receipt.new-unplanned-button",
+                        locate("inbound", "new-unplanned-receipt", NEW_UNPLANNED_RECEIPT_BUTTON));
+                    
+                    ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", newReceiptBtn);
+                    getUiWaits().animationsDone("receipt.scroll");
+                    
+                    double since = markAction();
+                    newReceiptBtn.click();
+                    log.step("✓ Clicked 'New Unplanned Receipt'");
+                    
+                    try {
+                        getUiWaits().visible("receipt.modal-open", EXTERNAL_PO_OPTION); // Wait for the modal's options
+                    } catch (TimeoutException e) {
+                        log.stepWarn("⚠ Receipt type options not shown after {}s", TIMEOUT);
+                    }
+                    recordActionTimings("receipt-modal", since);
+                    log.close();
+                    return;
+                    
+                } catch (StaleElementReferenceException e) {
+                    attempts++;
+                    if (attempts >= maxAttempts) {
+                        log.stepError("✗ Element became stale after {} attempts", maxAttempts);
+                        throw new RuntimeException(e);
+                    }
+                    log.stepWarn("⚠ Element stale, retrying... (attempt {})", (attempts + 1));
                 } catch (Exception e) {
-                    System.out.println("│ ⚠ Form did not load after clicking option");
-                    continue; // Try next selector
+                    log.stepError("✗ Failed to click button: {}", e.getMessage());
+                    log.close();
+                    takeScreenshot("error_new_receipt");
+                    Assert.fail("Failed to click New Unplanned Receipt: " + e.getMessage());
                 }
-                
-            } catch (Exception e) {
-                if (i == EXTERNAL_PO_OPTION_SELECTORS.length - 1) {
-                    System.out.println("│ ✗ Could not select External PO option with any selector");
-                    System.out.println("│ Error: " + e.getMessage());
-                    System.out.println("└────────────────────────────────────────┘");
+            }
+        });
+    }
+    
+    /**
+     * FIXED: Select External PO Reference option with multiple selector attempts
+     * Returns true if successful, false otherwise
+     */
+    boolean selectExternalPOReference() {
+        return StepSpans.call("receipt.select-external-po", () -> {
+            log.open("EXTERNAL PO REFERENCE");
+            
+            // Race all selectors at once; if a match does not open the form, exclude it and race again
+            Set<Integer> tried = new HashSet<>();
+            while (true) {
+                try {
+                    MultiLocator.Match match = EXTERNAL_PO_OPTION.find(getDriver(), Duration.ofSeconds(TIMEOUT), tried);
+                    tried.add(match.getIndex());
+                    WebElement externalPOOption = match.getElement();
+                    
+                    ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", externalPOOption);
+                    getUiWaits().animationsDone("external-po.scroll");
+                    
+                    externalPOOption.click();
+                    log.step("✓ Selected External PO Reference (selector {})", (match.getIndex() + 1));
+                    getUiWaits().settled("external-po.form-open");
+                    
+                    // Verify form loaded by checking for External PO Number field
+                    try {
+                        getWait().until(ExpectedConditions.presenceOfElementLocated(EXTERNAL_PO_NUMBER));
+                        log.step("✓ Form loaded and ready");
+                        log.close();
+                        return true;
+                    } catch (Exception e) {
+                        log.stepWarn("⚠ Form did not load after clicking option");
+                        EXTERNAL_PO_OPTION.forgetWinner();
+                    }
+                    
+                } catch (Exception e) {
+                    log.stepError("✗ Could not select External PO option with any selector");
+                    log.step("Error: {}", e.getMessage());
+                    log.close();
                     takeScreenshot("error_external_po");
                     return false;
                 }
-                // Continue to next selector
             }
-        }
-        
-        return false;
+        });
     }
     
     /**
-     * Helper method to take screenshot with improved error handling
+     * Helper method to take screenshot with improved error handling.
+     * Files go to screenshots/&lt;test id&gt;/ so parallel tests never overwrite each other;
+     * the PNG is captured in memory and written by the background screenshot service.
+     * Test step frames are buffered and only written if the test fails or is skipped,
+     * unless aivoa.screenshots.mode=always.
      */
-    private void takeScreenshot(String fileName) {
+    void takeScreenshot(String fileName) {
         try {
-            if (driver != null) {
-                TakesScreenshot screenshot = (TakesScreenshot) driver;
-                File srcFile = screenshot.getScreenshotAs(OutputType.FILE);
-                File destFile = new File("screenshots/" + fileName + ".png");
-                FileUtils.copyFile(srcFile, destFile);
-                System.out.println("│ 📸 Screenshot: " + fileName + ".png");
+            if (getDriver() != null) {
+                TakesScreenshot screenshot = (TakesScreenshot) getDriver();
+                byte[] png = screenshot.getScreenshotAs(OutputType.BYTES);
+                String path = TestContext.testId() + "/" + fileName + ".png";
+                boolean written = TestContext.isSuiteLevel()
+                    ? screenshots.submit(path, png)
+                    : screenshotBuffer.capture(TestContext.testId(), path, png);
+                if (written) {
+                    log.step("📸 Screenshot: {}", path);
+                }
             }
         } catch (Exception e) {
-            System.out.println("│ ⚠ Screenshot failed: " + e.getMessage());
+            log.stepWarn("⚠ Screenshot failed: {}", e.getMessage());
         }
     }
     
     /**
      * Helper method to enter text in a field with improved reliability
      */
-    private void enterText(By locator, String text, String fieldName) {
-        int attempts = 0;
-        int maxAttempts = 2;
-        
-        while (attempts < maxAttempts) {
-            try {
-                WebElement element = wait.until(ExpectedConditions.elementToBeClickable(locator));
-                
-                ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
-                Thread.sleep(200);
-                
-                element.click();
-                Thread.sleep(100);
-                
-                element.clear();
-                element.sendKeys(text);
-                
-                System.out.println("│   ✓ " + fieldName + ": " + text);
-                return;
-                
-            } catch (StaleElementReferenceException e) {
-                attempts++;
-                if (attempts >= maxAttempts) {
-                    tryJavaScriptEntry(locator, text, fieldName);
+    void enterText(By locator, String text, String fieldName) {
+        By resolved = locate("external-po-form", fieldName, locator);
+        StepSpans.run("form.enter-text." + fieldName, () -> {
+            int attempts = 0;
+            int maxAttempts = 2;
+            
+            while (attempts < maxAttempts) {
+                try {
+                    WebElement element = getWait().until(ExpectedConditions.elementToBeClickable(resolved));
+                    
+                    ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", element);
+                    getUiWaits().animationsDone("field.scroll");
+                    
+                    element.click();
+                    
+                    element.clear();
+                    element.sendKeys(text);
+                    
+                    log.step("  ✓ {}: {}", fieldName, text);
+                    return;
+                    
+                } catch (StaleElementReferenceException e) {
+                    attempts++;
+                    if (attempts >= maxAttempts) {
+                        tryJavaScriptEntry(resolved, text, fieldName);
+                        return;
+                    }
+                } catch (Exception e) {
+                    log.stepError("  ✗ Failed to enter {}: {}", fieldName, e.getMessage());
+                    tryJavaScriptEntry(resolved, text, fieldName);
                     return;
                 }
-            } catch (Exception e) {
-                System.out.println("│   ✗ Failed to enter " + fieldName + ": " + e.getMessage());
-                tryJavaScriptEntry(locator, text, fieldName);
-                return;
+            }
+        });
+    }
+    
+    /**
+     * Fill the form from logical field name to value in one script call that
+     * sets, fires events and reads back every field. Fields listed in
+     * typedFields, all fields when aivoa.form.fill=type, and batched fields
+     * whose value did not stick are typed key by key through enterText().
+     */
+    void fillForm(Map<String, String> values, String... typedFields) {
+        boolean typeAll = "type".equalsIgnoreCase(TestConfig.stringValue("aivoa.form.fill", "batch"));
+        Set<String> typed = new HashSet<>(Arrays.asList(typedFields));
+        Map<By, String> batch = new LinkedHashMap<>();
+        Map<By, String> names = new LinkedHashMap<>();
+        List<String> toType = new ArrayList<>();
+        
+        for (Map.Entry<String, String> entry : values.entrySet()) {
+            By field = FORM_FIELD_LOCATORS.get(entry.getKey());
+            if (field == null) {
+                throw new IllegalArgumentException("Unknown form field: " + entry.getKey());
+            }
+            if (typeAll || typed.contains(entry.getKey())) {
+                toType.add(entry.getKey());
+            } else {
+                // Resolved in the page by the fill script itself, no lookup round trip per field
+                batch.put(field, entry.getValue());
+                names.put(field, entry.getKey());
             }
         }
+        
+        if (!batch.isEmpty()) {
+            Map<By, String> actual = StepSpans.call("form.fill", () -> ReceiptForm.fill(getDriver(), batch));
+            for (Map.Entry<By, String> entry : batch.entrySet()) {
+                String name = names.get(entry.getKey());
+                String readBack = actual.get(entry.getKey());
+                if (entry.getValue().equals(readBack)) {
+                    log.step("  ✓ {}: {}", name, entry.getValue());
+                } else {
+                    log.stepWarn("  ⚠ {}: set '{}' but reads '{}', typing it instead", name, entry.getValue(), readBack);
+                    toType.add(name);
+                }
+            }
+        }
+        
+        for (String name : toType) {
+            enterText(FORM_FIELD_LOCATORS.get(name), values.get(name), name);
+        }
+        getUiWaits().settled("form.fill");
     }
     
     /**
      * JavaScript fallback for entering text
      */
-    private void tryJavaScriptEntry(By locator, String text, String fieldName) {
+    void tryJavaScriptEntry(By locator, String text, String fieldName) {
         try {
-            System.out.println("│   ⚠ Attempting JavaScript fallback...");
-            WebElement element = driver.findElement(locator);
-            ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
-            Thread.sleep(200);
-            ((JavascriptExecutor) driver).executeScript("arguments[0].value=arguments[1];", element, text);
-            System.out.println("│   ✓ " + fieldName + ": " + text + " (via JavaScript)");
+            log.stepWarn("  ⚠ Attempting JavaScript fallback...");
+            WebElement element = getDriver().findElement(locator);
+            ((JavascriptExecutor) getDriver()).executeScript("arguments[0].scrollIntoView(true);", element);
+            getUiWaits().animationsDone("field.scroll");
+            ((JavascriptExecutor) getDriver()).executeScript("arguments[0].value=arguments[1];", element, text);
+            log.step("  ✓ {}: {} (via JavaScript)", fieldName, text);
         } catch (Exception ex) {
-            System.out.println("│   ✗ JavaScript fallback also failed");
+            log.stepError("  ✗ JavaScript fallback also failed");
             throw new RuntimeException("Could not interact with " + fieldName);
         }
     }
     
     /**
-     * Helper method to check for validation errors
+     * Helper method to check for validation errors (single round trip)
      */
-    private List<String> getValidationErrors() {
-        List<String> errors = new ArrayList<>();
-        String[] errorXPaths = {
-            "//div[contains(@class, 'error') and not(contains(@class, 'hidden'))]",
-            "//span[contains(@class, 'error') and not(contains(@class, 'hidden'))]",
-            "//p[contains(@class, 'error')]",
-            "//*[contains(text(), 'required')]",
-            "//*[contains(text(), 'Required')]",
-            "//*[contains(@class, 'invalid')]",
-            "//span[contains(@class, 'text-red')]",
-            "//*[contains(@class, 'error-message')]"
-        };
-        
-        for (String xpath : errorXPaths) {
-            try {
-                List<WebElement> errorElements = driver.findElements(By.xpath(xpath));
-                for (WebElement error : errorElements) {
-                    if (error.isDisplayed() && !error.getText().trim().isEmpty()) {
-                        String errorText = error.getText().trim();
-                        if (!errors.contains(errorText)) {
-                            errors.add(errorText);
-                        }
-                    }
-                }
-            } catch (Exception e) {
-                // Continue to next selector
-            }
-        }
-        return errors;
+    List<ValidationErrors.FieldError> getValidationErrors() {
+        return ValidationErrors.collect(getDriver());
     }
     
     /**
      * Helper method to check if specific field has error
      */
-    private boolean hasFieldError(By fieldLocator) {
-        try {
-            WebElement field = driver.findElement(fieldLocator);
-            String className = field.getAttribute("class");
-            String ariaInvalid = field.getAttribute("aria-invalid");
-            
-            WebElement parent = field.findElement(By.xpath("./parent::*"));
-            String parentClass = parent.getAttribute("class");
-            
-            return (className != null && (className.contains("error") || className.contains("invalid") || className.contains("border-red"))) ||
-                   (ariaInvalid != null && ariaInvalid.equals("true")) ||
-                   (parentClass != null && (parentClass.contains("error") || parentClass.contains("invalid") || parentClass.contains("border-red")));
-        } catch (Exception e) {
-            return false;
-        }
+    boolean hasFieldError(By fieldLocator) {
+        return ValidationErrors.hasFieldError(getDriver(), fieldLocator);
     }
     
     /**
-     * Helper method to create test files for upload with null check
+     * Helper method to create a valid upload file (type from the extension,
+     * size from aivoa.fixtures.size), reused from the fixture cache when possible
      */
-    private File createTestFile(String fileName, String content) {
+    File createTestFile(String fileName) {
         try {
-            File file = new File("test-files/" + fileName);
-            FileWriter writer = new FileWriter(file);
-            writer.write(content);
-            writer.close();
+            File file = UploadFixtures.get(fileName, UploadFixtures.defaultSize());
             
             if (file.exists()) {
                 return file;
             } else {
-                System.out.println("│ ✗ File created but doesn't exist: " + fileName);
+                log.stepError("✗ File created but doesn't exist: {}", fileName);
                 return null;
             }
         } catch (Exception e) {
-            System.out.println("│ ✗ Failed to create test file: " + fileName + " - " + e.getMessage());
+            log.stepError("✗ Failed to create test file: {} - {}", fileName, e.getMessage());
             return null;
         }
     }
@@ -452,119 +905,129 @@ public class AdditionalExternalPOTests {
      */
     private String getSafeCurrentUrl() {
         try {
-            return driver.getCurrentUrl();
+            return getDriver().getCurrentUrl();
         } catch (Exception e) {
-            System.out.println("│ ⚠ Could not get current URL (browser may be unreachable)");
+            log.stepWarn("⚠ Could not get current URL (browser may be unreachable)");
             return "unknown";
         }
     }
     
+    /**
+     * Login through the UI form. Every other test signs in over the API.
+     */
+    @Test(description = "Verify login through the login form", groups = UI_LOGIN_GROUP)
+    public void testLogin_UiForm() {
+        log.banner("Login Form Test");
+        
+        performLogin();
+        
+        String currentUrl = getSafeCurrentUrl();
+        log.open("TEST RESULT");
+        log.step("Current URL: {}", currentUrl);
+        Assert.assertFalse(session.isLoginRedirect(currentUrl), "Still on the login page after submitting the form");
+        log.step("✅ TEST PASSED");
+        log.close();
+    }
+    
     /**
      * TC004: Verify validation error when External PO Number is empty and Next is clicked
      */
-    @Test(priority = 1, description = "TC004: Verify validation error when External PO Number is empty")
+    @Test(description = "TC004: Verify validation error when External PO Number is empty")
     public void testTC004_ExternalPONumberValidation() throws InterruptedException {
-        System.out.println("\n╔════════════════════════════════════════╗");
-        System.out.println("║  TC004: External PO Number Validation ║");
-        System.out.println("╚════════════════════════════════════════╝");
+        log.banner("TC004: External PO Number Validation");
         
         String supplierName = "12122";
         String bolAwrNumber = "BOL-TEST-67890";
         String deliveryDate = "12/15/2025";
         
-        System.out.println("\n┌─ TEST DATA ────────────────────────────┐");
-        System.out.println("│ External PO: [EMPTY - TO BE TESTED]");
-        System.out.println("│ Supplier: " + supplierName);
-        System.out.println("│ BOL/AWR: " + bolAwrNumber);
-        System.out.println("│ Date: " + deliveryDate);
-        System.out.println("└────────────────────────────────────────┘");
+        log.open("TEST DATA");
+        log.step("External PO: [EMPTY - TO BE TESTED]");
+        log.step("Supplier: {}", supplierName);
+        log.step("BOL/AWR: {}", bolAwrNumber);
+        log.step("Date: {}", deliveryDate);
+        log.close();
         
-        System.out.println("\n✓ Steps 1-4: Setup completed");
+        log.info("✓ Steps 1-4: Setup completed");
         
-        System.out.println("\n┌─ STEP 5-6: Filling Other Fields ──────┐");
+        log.open("STEP 5-6: Filling Other Fields");
         
         try {
-            WebElement externalPO = driver.findElement(EXTERNAL_PO_NUMBER);
+            WebElement externalPO = getDriver().findElement(locate("external-po-form", "External PO Number", EXTERNAL_PO_NUMBER));
             externalPO.clear();
-            System.out.println("│   ✓ External PO Number: [LEFT EMPTY]");
+            log.step("  ✓ External PO Number: [LEFT EMPTY]");
         } catch (Exception e) {
-            System.out.println("│   ⚠ External PO Number field not found");
+            log.stepWarn("  ⚠ External PO Number field not found");
         }
         
-        enterText(SUPPLIER_NAME, supplierName, "Supplier Name");
-        enterText(BOL_AWR_NUMBER, bolAwrNumber, "BOL/AWR Number");
-        
-        try {
-            WebElement dateField = wait.until(
-                ExpectedConditions.elementToBeClickable(DELIVERY_DATE)
-            );
-            dateField.click();
-            dateField.clear();
-            dateField.sendKeys(deliveryDate);
-            dateField.sendKeys(Keys.TAB);
-            System.out.println("│   ✓ Delivery Date: " + deliveryDate);
-            Thread.sleep(500);
-        } catch (Exception e) {
-            System.out.println("│   ✗ Failed to enter Delivery Date");
-        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("Supplier Name", supplierName);
+        fields.put("BOL/AWR Number", bolAwrNumber);
+        fields.put("Delivery Date", deliveryDate);
+        fillForm(fields);
         
         takeScreenshot("tc004_01_form_with_empty_po");
-        System.out.println("└────────────────────────────────────────┘");
+        log.close();
         
-        System.out.println("\n┌─ STEP 7: Clicking Next Button ─────────┐");
+        log.open("STEP 7: Clicking Next Button");
+        NetworkObserver.Window nextWindow = getNetwork().begin("tc004.next");
         try {
-            WebElement nextButton = wait.until(
-                ExpectedConditions.elementToBeClickable(NEXT_BUTTON)
+            WebElement nextButton = getWait().until(
+                ExpectedConditions.elementToBeClickable(locate("external-po-form", "Next", NEXT_BUTTON))
             );
-            System.out.println("│ ✓ Found Next button");
+            log.step("✓ Found Next button");
+            double since = markAction();
             nextButton.click();
-            System.out.println("│ ✓ Clicked Next button");
-            Thread.sleep(1000);
+            log.step("✓ Clicked Next button");
+            getUiWaits().requestsSettled("next.validation");
+            getUiWaits().settled("next.validation");
+            recordActionTimings("external-po-next", since);
         } catch (Exception e) {
-            System.out.println("│ ✗ Failed to click Next button");
-            System.out.println("└────────────────────────────────────────┘");
+            log.stepError("✗ Failed to click Next button");
+            log.close();
             takeScreenshot("tc004_02_error_next");
             Assert.fail("Next button not clickable: " + e.getMessage());
         }
         
         takeScreenshot("tc004_02_after_next_click");
-        System.out.println("└────────────────────────────────────────┘");
+        getNetwork().end(nextWindow);
+        log.close();
         
-        System.out.println("\n┌─ STEP 8: Verifying PO Number Error ────┐");
+        log.open("STEP 8: Verifying PO Number Error");
         
-        List<String> validationErrors = getValidationErrors();
+        List<ValidationErrors.FieldError> validationErrors = getValidationErrors();
         boolean poFieldHasError = hasFieldError(EXTERNAL_PO_NUMBER);
         
-        System.out.println("│");
+        log.step("");
         if (poFieldHasError) {
-            System.out.println("│ ✓ External PO Number field has error state");
+            log.step("✓ External PO Number field has error state");
         } else {
-            System.out.println("│ ⚠ No error state on External PO Number field");
+            log.stepWarn("⚠ No error state on External PO Number field");
         }
         
         if (!validationErrors.isEmpty()) {
-            System.out.println("│");
-            System.out.println("│ ✓ Found " + validationErrors.size() + " validation error(s):");
+            log.step("");
+            log.step("✓ Found {} validation error(s):", validationErrors.size());
             for (int i = 0; i < validationErrors.size(); i++) {
-                System.out.println("│   " + (i + 1) + ". " + validationErrors.get(i));
+                log.step("  {}. {}", (i + 1), validationErrors.get(i));
             }
         }
         
         boolean hasExternalPOError = false;
-        for (String error : validationErrors) {
+        for (ValidationErrors.FieldError fieldError : validationErrors) {
+            String error = fieldError.getText();
             if (error.toLowerCase().contains("external") || 
                 error.toLowerCase().contains("po") || 
                 error.toLowerCase().contains("required")) {
                 hasExternalPOError = true;
-                System.out.println("│");
-                System.out.println("│ ✓ Found External PO related error:");
-                System.out.println("│   \"" + error + "\"");
+                log.step("");
+                log.step("✓ Found External PO related error:");
+                log.step("  \"{}\"", error);
                 break;
             }
         }
         
         takeScreenshot("tc004_03_validation_error");
-        System.out.println("└────────────────────────────────────────┘");
+        log.close();
         
         // FIXED: Use safe URL retrieval
         String currentUrl = getSafeCurrentUrl();
@@ -572,142 +1035,206 @@ public class AdditionalExternalPOTests {
                               !currentUrl.contains("verify") && 
                               !currentUrl.contains("inspect");
         
-        System.out.println("\n┌─ VERIFICATION ─────────────────────────┐");
-        System.out.println("│ Current URL: " + currentUrl);
+        log.open("VERIFICATION");
+        log.step("Current URL: {}", currentUrl);
         if (stillOnForm) {
-            System.out.println("│ ✓ Still on form (navigation blocked)");
+            log.step("✓ Still on form (navigation blocked)");
         }
-        System.out.println("└────────────────────────────────────────┘");
+        log.close();
         
         boolean validationWorking = poFieldHasError || hasExternalPOError || validationErrors.size() > 0;
         
-        System.out.println("\n┌─ TEST RESULT ──────────────────────────┐");
-        System.out.println("│ Field error state: " + poFieldHasError);
-        System.out.println("│ PO-related error message: " + hasExternalPOError);
-        System.out.println("│ Total error messages: " + validationErrors.size());
-        System.out.println("│ Form navigation blocked: " + stillOnForm);
+        log.open("TEST RESULT");
+        log.step("Field error state: {}", poFieldHasError);
+        log.step("PO-related error message: {}", hasExternalPOError);
+        log.step("Total error messages: {}", validationErrors.size());
+        log.step("Form navigation blocked: {}", stillOnForm);
         
         Assert.assertTrue(validationWorking, 
             "Expected validation error for empty External PO Number but none found");
         
-        System.out.println("│");
-        System.out.println("│ ✅ TEST PASSED");
-        System.out.println("│    External PO Number validation working");
-        System.out.println("└────────────────────────────────────────┘\n");
+        log.step("");
+        log.step("✅ TEST PASSED");
+        log.step("   External PO Number validation working");
+        log.close();
+    }
+    
+    /**
+     * Rows of the External PO dataset, streamed lazily and sharded by aivoa.data.shardIndex/shardCount.
+     * Not parallel: TestNG would read the whole dataset up front, and rows run in turn on the open form.
+     */
+    @DataProvider(name = "poFormats")
+    public Iterator<Object[]> poFormats() {
+        return DataRows.open(PO_DATASET);
+    }
+    
+    /**
+     * TC004-DD: External PO Number validation over a streamed dataset.
+     * Each row fills the already-open form and checks whether the PO field is flagged.
+     */
+    @Test(description = "TC004-DD: External PO Number validation per data row",
+          dataProvider = "poFormats", groups = DATA_DRIVEN_GROUP)
+    public void testTC004_ExternalPONumberFormats(Map<String, String> row) {
+        String poNumber = row.getOrDefault("poNumber", "");
+        boolean expectError = Boolean.parseBoolean(row.getOrDefault("expectPoError", "false"));
+        
+        log.open("ROW " + row.get("_line") + ": " + row.getOrDefault("id", ""));
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("External PO Number", poNumber);
+        fields.put("Supplier Name", row.getOrDefault("supplier", ""));
+        fields.put("BOL/AWR Number", row.getOrDefault("bol", ""));
+        fields.put("Delivery Date", row.getOrDefault("deliveryDate", ""));
+        fields.values().removeIf(String::isEmpty);
+        fillForm(fields);
+        
+        WebElement nextButton = getWait().until(ExpectedConditions.elementToBeClickable(locate("external-po-form", "Next", NEXT_BUTTON)));
+        double since = markAction();
+        nextButton.click();
+        getUiWaits().settled("next.validation");
+        recordActionTimings("external-po-next", since);
+        
+        boolean poFieldHasError = hasFieldError(EXTERNAL_PO_NUMBER);
+        log.step("Expected PO error: {}, actual: {}", expectError, poFieldHasError);
+        
+        // A row the app rejected still shows the form; the next row reuses it
+        lastDataRowLeftOpen = ReceiptForm.isOpen(getDriver(), EXTERNAL_PO_NUMBER);
+        if (lastDataRowLeftOpen) {
+            DATA_ROWS_LEFT_OPEN.incrementAndGet();
+        }
+        log.close();
+        
+        if (poFieldHasError != expectError) {
+            takeScreenshot("tc004dd_row_" + row.get("_line"));
+        }
+        Assert.assertEquals(poFieldHasError, expectError,
+            "PO error state for row " + row.get("_line") + " (" + row.getOrDefault("id", "") + ", '" + poNumber + "')");
+    }
+    
+    /**
+     * Report how many data rows started on the form a previous row left open.
+     * Fails if rows handed the form on but none of them could reuse it.
+     */
+    @AfterGroups(groups = DATA_DRIVEN_GROUP, alwaysRun = true)
+    public void checkDataRowReuse() {
+        int rows = DATA_ROWS.get();
+        if (rows == 0) {
+            return;
+        }
+        int reused = DATA_ROWS_REUSED.get();
+        int handedOn = DATA_ROWS_LEFT_OPEN.get() - (lastDataRowLeftOpen ? 1 : 0);
+        String line = String.format("%d row(s), %d reused the open form, %d left it open for the next row",
+            rows, reused, handedOn);
+        log.open("DATA ROWS: FORM REUSE");
+        log.step(line);
+        log.close();
+        Reporter.log("[data-driven] " + line);
+        Assert.assertTrue(handedOn == 0 || reused > 0, "No data row reused the open form: " + line);
     }
     
     /**
      * TC036: Verify multiple files can be uploaded
      */
-    @Test(priority = 2, description = "TC036: Verify multiple files can be uploaded")
+    @Test(description = "TC036: Verify multiple files can be uploaded")
     public void testTC036_MultipleFileUpload() throws InterruptedException {
-        System.out.println("\n╔════════════════════════════════════════╗");
-        System.out.println("║  TC036: Multiple File Upload Test     ║");
-        System.out.println("╚════════════════════════════════════════╝");
+        log.banner("TC036: Multiple File Upload Test");
         
-        System.out.println("\n✓ Steps 1-4: Setup completed");
+        log.info("✓ Steps 1-4: Setup completed");
         
-        System.out.println("\n┌─ STEP 5: Filling Required Fields ─────┐");
+        log.open("STEP 5: Filling Required Fields");
         
         String externalPONumber = "PO-2025-101";
         String supplierName = "12122";
         String bolAwrNumber = "BOL-TEST-67890";
         String deliveryDate = "12/15/2025";
         
-        enterText(EXTERNAL_PO_NUMBER, externalPONumber, "External PO Number");
-        enterText(SUPPLIER_NAME, supplierName, "Supplier Name");
-        enterText(BOL_AWR_NUMBER, bolAwrNumber, "BOL/AWR Number");
-        
-        try {
-            WebElement dateField = wait.until(
-                ExpectedConditions.elementToBeClickable(DELIVERY_DATE)
-            );
-            dateField.click();
-            dateField.clear();
-            dateField.sendKeys(deliveryDate);
-            dateField.sendKeys(Keys.TAB);
-            System.out.println("│   ✓ Delivery Date: " + deliveryDate);
-            Thread.sleep(500);
-        } catch (Exception e) {
-            System.out.println("│   ✗ Failed to enter Delivery Date");
-        }
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("External PO Number", externalPONumber);
+        fields.put("Supplier Name", supplierName);
+        fields.put("BOL/AWR Number", bolAwrNumber);
+        fields.put("Delivery Date", deliveryDate);
+        fillForm(fields);
         
         takeScreenshot("tc036_01_form_filled");
-        System.out.println("└────────────────────────────────────────┘");
+        log.close();
         
-        System.out.println("\n┌─ STEP 6: Creating Test Files ──────────┐");
+        log.open("STEP 6: Creating Test Files");
         
-        File pdfFile = createTestFile("test-document.pdf", "Test PDF content for upload testing");
-        File pngFile = createTestFile("test-image.png", "Test PNG content for upload testing");
-        File jpgFile = createTestFile("test-photo.jpg", "Test JPG content for upload testing");
+        File pdfFile = createTestFile("test-document.pdf");
+        File pngFile = createTestFile("test-image.png");
+        File jpgFile = createTestFile("test-photo.jpg");
         
         int filesCreated = 0;
         if (pdfFile != null) {
-            System.out.println("│ ✓ Created: test-document.pdf");
+            log.step("✓ Created: test-document.pdf ({})", UploadFixtures.formatSize(pdfFile.length()));
             filesCreated++;
         }
         if (pngFile != null) {
-            System.out.println("│ ✓ Created: test-image.png");
+            log.step("✓ Created: test-image.png ({})", UploadFixtures.formatSize(pngFile.length()));
             filesCreated++;
         }
         if (jpgFile != null) {
-            System.out.println("│ ✓ Created: test-photo.jpg");
+            log.step("✓ Created: test-photo.jpg ({})", UploadFixtures.formatSize(jpgFile.length()));
             filesCreated++;
         }
         
         if (filesCreated == 0) {
-            System.out.println("│ ✗ No test files were created!");
-            System.out.println("└────────────────────────────────────────┘");
+            log.stepError("✗ No test files were created!");
+            log.close();
             Assert.fail("Failed to create any test files");
         }
         
-        System.out.println("└────────────────────────────────────────┘");
+        log.close();
         
-        System.out.println("\n┌─ STEPS 7-9: Uploading Files ───────────┐");
+        log.open("STEPS 7-9: Uploading Files");
         
         int uploadedCount = 0;
+        By fileInputLocator = locate("external-po-form", "File Input", FILE_INPUT);
+        NetworkObserver.Window uploadWindow = getNetwork().begin("tc036.upload");
         
         try {
-            WebElement fileInput = driver.findElement(FILE_INPUT);
+            WebElement fileInput = getDriver().findElement(fileInputLocator);
             
             if (pdfFile != null && pdfFile.exists()) {
                 fileInput.sendKeys(pdfFile.getAbsolutePath());
-                System.out.println("│ ✓ Uploaded: test-document.pdf");
+                log.step("✓ Uploaded: test-document.pdf");
                 uploadedCount++;
-                Thread.sleep(1000);
+                getUiWaits().requestsSettled("upload.file-added");
+                getUiWaits().settled("upload.file-added");
             }
             
-            fileInput = driver.findElement(FILE_INPUT);
+            fileInput = getDriver().findElement(fileInputLocator);
             
             if (pngFile != null && pngFile.exists()) {
                 fileInput.sendKeys(pngFile.getAbsolutePath());
-                System.out.println("│ ✓ Uploaded: test-image.png");
+                log.step("✓ Uploaded: test-image.png");
                 uploadedCount++;
-                Thread.sleep(1000);
+                getUiWaits().requestsSettled("upload.file-added");
+                getUiWaits().settled("upload.file-added");
             }
             
-            fileInput = driver.findElement(FILE_INPUT);
+            fileInput = getDriver().findElement(fileInputLocator);
             
             if (jpgFile != null && jpgFile.exists()) {
                 fileInput.sendKeys(jpgFile.getAbsolutePath());
-                System.out.println("│ ✓ Uploaded: test-photo.jpg");
+                log.step("✓ Uploaded: test-photo.jpg");
                 uploadedCount++;
-                Thread.sleep(1000);
+                getUiWaits().requestsSettled("upload.file-added");
+                getUiWaits().settled("upload.file-added");
             }
             
-            System.out.println("│");
-            System.out.println("│ Total files uploaded: " + uploadedCount);
+            log.step("");
+            log.step("Total files uploaded: {}", uploadedCount);
             
         } catch (Exception e) {
-            System.out.println("│ ⚠ Upload method 1 failed: " + e.getMessage());
-            System.out.println("│ Trying alternative approach...");
+            log.stepWarn("⚠ Upload method 1 failed: {}", e.getMessage());
+            log.step("Trying alternative approach...");
             
             try {
-                WebElement uploadButton = driver.findElement(UPLOAD_FILES_BUTTON);
+                WebElement uploadButton = getDriver().findElement(UPLOAD_FILES_BUTTON);
                 uploadButton.click();
-                Thread.sleep(800);
+                getUiWaits().settled("upload.dialog-open");
                 
-                WebElement fileInput = driver.findElement(FILE_INPUT);
+                WebElement fileInput = getDriver().findElement(fileInputLocator);
                 
                 if (pdfFile != null && pngFile != null && jpgFile != null) {
                     String allFiles = pdfFile.getAbsolutePath() + "\n" + 
@@ -715,113 +1242,92 @@ public class AdditionalExternalPOTests {
                                     jpgFile.getAbsolutePath();
                     fileInput.sendKeys(allFiles);
                     uploadedCount = 3;
-                    System.out.println("│ ✓ Uploaded all 3 files together");
+                    log.step("✓ Uploaded all 3 files together");
                 }
                 
             } catch (Exception e2) {
-                System.out.println("│ ✗ Upload failed: " + e2.getMessage());
+                log.stepError("✗ Upload failed: {}", e2.getMessage());
             }
         }
         
         takeScreenshot("tc036_02_files_uploaded");
-        System.out.println("└────────────────────────────────────────┘");
+        log.close();
         
-        System.out.println("\n┌─ STEP 10: Verifying Uploaded Files ────┐");
+        log.open("STEP 10: Verifying Uploaded Files");
         
-        List<WebElement> uploadedFileElements = new ArrayList<>();
-        try {
-            WebDriverWait fileWait = new WebDriverWait(driver, Duration.ofSeconds(8));
-            uploadedFileElements = fileWait.until(
-                ExpectedConditions.presenceOfAllElementsLocatedBy(UPLOADED_FILES_LIST)
-            );
-            System.out.println("│ ✓ Files appeared in UI after wait");
-        } catch (Exception e) {
-            System.out.println("│ ⚠ WebDriverWait timed out, trying alternative selectors...");
-            
-            String[] alternativeSelectors = {
-                "//div[contains(@class, 'uploaded-file')]",
-                "//li[contains(@class, 'file-item')]",
-                "//*[contains(@class, 'attachment')]",
-                "//span[contains(text(), 'test-document') or contains(text(), 'test-image') or contains(text(), 'test-photo')]",
-                "//*[contains(@class, 'file-name')]"
-            };
-            
-            for (String selector : alternativeSelectors) {
-                try {
-                    uploadedFileElements = driver.findElements(By.xpath(selector));
-                    if (!uploadedFileElements.isEmpty()) {
-                        System.out.println("│ ✓ Found files using alternative selector");
-                        break;
-                    }
-                } catch (Exception ex) {
-                    // Continue
-                }
-            }
+        // Only the upload area is scanned, no page source serialization
+        UploadVerifier uploadVerifier = new UploadVerifier(getDriver(), fileInputLocator);
+        List<UploadVerifier.UploadedFile> uploadedFiles = uploadVerifier.waitForFiles(uploadedCount, Duration.ofSeconds(8));
+        if (uploadedFiles.size() >= uploadedCount && uploadedCount > 0) {
+            log.step("✓ Files appeared in UI after wait");
+        } else {
+            log.stepWarn("⚠ Only {} of {} file(s) shown within 8s", uploadedFiles.size(), uploadedCount);
         }
         
-        System.out.println("│ Found " + uploadedFileElements.size() + " file element(s) in UI");
+        log.step("Found {} file(s) in upload area", uploadedFiles.size());
         
-        if (!uploadedFileElements.isEmpty()) {
-            System.out.println("│");
-            System.out.println("│ Displayed files:");
-            for (int i = 0; i < uploadedFileElements.size(); i++) {
-                String fileText = uploadedFileElements.get(i).getText();
-                if (!fileText.trim().isEmpty()) {
-                    System.out.println("│   " + (i + 1) + ". " + fileText);
-                }
+        if (!uploadedFiles.isEmpty()) {
+            log.step("");
+            log.step("Displayed files:");
+            for (int i = 0; i < uploadedFiles.size(); i++) {
+                log.step("  {}. {}", (i + 1), uploadedFiles.get(i));
             }
         }
         
-        String pageSource = driver.getPageSource();
-        boolean foundPdf = pageSource.contains("test-document") || pageSource.contains(".pdf");
-        boolean foundPng = pageSource.contains("test-image") || pageSource.contains(".png");
-        boolean foundJpg = pageSource.contains("test-photo") || pageSource.contains(".jpg");
+        boolean foundPdf = UploadVerifier.containsFile(uploadedFiles, "test-document");
+        boolean foundPng = UploadVerifier.containsFile(uploadedFiles, "test-image");
+        boolean foundJpg = UploadVerifier.containsFile(uploadedFiles, "test-photo");
         
-        System.out.println("│");
-        System.out.println("│ File detection:");
-        if (foundPdf) System.out.println("│   ✓ PDF file detected");
-        if (foundPng) System.out.println("│   ✓ PNG file detected");
-        if (foundJpg) System.out.println("│   ✓ JPG file detected");
+        log.step("");
+        log.step("File detection:");
+        if (foundPdf) log.step("  ✓ PDF file detected");
+        if (foundPng) log.step("  ✓ PNG file detected");
+        if (foundJpg) log.step("  ✓ JPG file detected");
         
         takeScreenshot("tc036_03_files_displayed");
-        System.out.println("└────────────────────────────────────────┘");
+        log.close();
+        
+        log.open("NETWORK: Upload Requests");
+        getUiWaits().requestsSettled("upload.requests");
+        getNetwork().end(uploadWindow);
+        log.close();
         
-        System.out.println("\n┌─ TEST RESULT ──────────────────────────┐");
-        System.out.println("│ Files uploaded: " + uploadedCount);
-        System.out.println("│ File elements in UI: " + uploadedFileElements.size());
-        System.out.println("│ PDF detected: " + foundPdf);
-        System.out.println("│ PNG detected: " + foundPng);
-        System.out.println("│ JPG detected: " + foundJpg);
+        log.open("TEST RESULT");
+        log.step("Files uploaded: {}", uploadedCount);
+        log.step("Files in upload area: {}", uploadedFiles.size());
+        log.step("PDF detected: {}", foundPdf);
+        log.step("PNG detected: {}", foundPng);
+        log.step("JPG detected: {}", foundJpg);
         
-        boolean filesVisible = uploadedFileElements.size() >= 1 || foundPdf || foundPng || foundJpg;
+        boolean filesVisible = uploadedFiles.size() >= 1 || foundPdf || foundPng || foundJpg;
         
         if (!filesVisible) {
-            System.out.println("│");
-            System.out.println("│ ❌ TC036: FAILED - APPLICATION BUG DETECTED");
-            System.out.println("│");
-            System.out.println("│ Root Cause:");
-            System.out.println("│   File upload functionality is not working");
-            System.out.println("│   in the application");
-            System.out.println("│");
-            System.out.println("│ Evidence:");
-            System.out.println("│   - Manual upload: FAILED (not accepting files)");
-            System.out.println("│   - Automated upload: Files sent but not displayed");
-            System.out.println("│   - Files sent to input: " + uploadedCount);
-            System.out.println("│   - Files visible in UI: 0");
-            System.out.println("│");
-            System.out.println("│ Expected:");
-            System.out.println("│   Uploaded files should appear in upload area");
-            System.out.println("│");
-            System.out.println("│ Actual:");
-            System.out.println("│   Upload area remains empty after file selection");
-            System.out.println("│");
-            System.out.println("│ Status:");
-            System.out.println("│   BUG REPORTED - Waiting for development fix");
-            System.out.println("│");
-            System.out.println("│ Screenshots:");
-            System.out.println("│   - tc036_02_files_uploaded.png");
-            System.out.println("│   - tc036_03_files_displayed.png");
-            System.out.println("└────────────────────────────────────────┘\n");
+            log.step("");
+            log.stepError("❌ TC036: FAILED - APPLICATION BUG DETECTED");
+            log.step("");
+            log.step("Root Cause:");
+            log.step("  File upload functionality is not working");
+            log.step("  in the application");
+            log.step("");
+            log.step("Evidence:");
+            log.step("  - Manual upload: FAILED (not accepting files)");
+            log.step("  - Automated upload: Files sent but not displayed");
+            log.step("  - Files sent to input: {}", uploadedCount);
+            log.step("  - Files visible in UI: 0");
+            log.step("");
+            log.step("Expected:");
+            log.step("  Uploaded files should appear in upload area");
+            log.step("");
+            log.step("Actual:");
+            log.step("  Upload area remains empty after file selection");
+            log.step("");
+            log.step("Status:");
+            log.step("  BUG REPORTED - Waiting for development fix");
+            log.step("");
+            log.step("Screenshots:");
+            log.step("  - tc036_02_files_uploaded.png");
+            log.step("  - tc036_03_files_displayed.png");
+            log.close();
             
             Assert.fail("TC036: FAILED - APPLICATION BUG DETECTED\n" +
                        "Root Cause: File upload functionality is not working in the application\n" +
@@ -833,9 +1339,9 @@ public class AdditionalExternalPOTests {
                        "Status: BUG REPORTED - Waiting for development fix");
         }
         
-        System.out.println("│");
-        System.out.println("│ ✅ TEST PASSED");
-        System.out.println("│    Multiple file upload is working");
-        System.out.println("└────────────────────────────────────────┘\n");
+        log.step("");
+        log.step("✅ TEST PASSED");
+        log.step("   Multiple file upload is working");
+        log.close();
     }
 }
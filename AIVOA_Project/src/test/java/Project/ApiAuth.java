@@ -0,0 +1,160 @@
+package Project;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import java.io.IOException;
+import java.net.HttpCookie;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Signs in over HTTP instead of driving the login form. The credentials are
+ * posted as JSON to the login endpoint with the JDK HttpClient; the session
+ * cookies and token it returns are put into the browser (cookies, plus the
+ * token in localStorage) before the first app page is opened.
+ *
+ * Endpoint, token field and storage key are configurable because they
+ * differ between environments; the embedded stub uses the defaults.
+ *
+ * @author Test Automation Team
+ */
+public class ApiAuth {
+
+    private static final TestLog log = TestLog.get(ApiAuth.class);
+
+    private final String baseUrl;
+    private final String username;
+    private final String password;
+    private final String loginPath;
+    private final String tokenField;
+    private final String storageKey;
+    private final Json json = new Json();
+    private final HttpClient client;
+
+    public ApiAuth(String baseUrl, String username, String password) {
+        this.baseUrl = baseUrl;
+        this.username = username;
+        this.password = password;
+        this.loginPath = TestConfig.stringValue("aivoa.auth.loginPath", "/api/auth/login");
+        this.tokenField = TestConfig.stringValue("aivoa.auth.tokenField", "token");
+        this.storageKey = TestConfig.stringValue("aivoa.auth.storageKey", "token");
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    }
+
+    /**
+     * API sign-in is the default; aivoa.auth=ui drives the login form everywhere
+     */
+    public static boolean isEnabled() {
+        return !"ui".equalsIgnoreCase(TestConfig.stringValue("aivoa.auth", "api"));
+    }
+
+    /**
+     * Fetch a session over HTTP and load it into the driver.
+     * Throws IllegalStateException if the endpoint gives no usable session.
+     */
+    public void signIn(WebDriver driver) {
+        long start = System.nanoTime();
+        Session session;
+        try {
+            session = fetchSession();
+        } catch (IOException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while signing in", e);
+        }
+
+        // Cookies and storage can only be set once the browser is on the app's origin
+        driver.get(baseUrl + "/favicon.ico");
+        for (Cookie cookie : session.cookies) {
+            driver.manage().addCookie(cookie);
+        }
+        if (session.token != null) {
+            ((JavascriptExecutor) driver).executeScript(
+                "window.localStorage.setItem(arguments[0], arguments[1]);", storageKey, session.token);
+        }
+        log.info("✓ Signed in through {} in {} ms", loginPath, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * POST the credentials and collect the cookies and token from the response
+     */
+    @SuppressWarnings("unchecked")
+    public Session fetchSession() throws IOException, InterruptedException {
+        Map<String, Object> credentials = new LinkedHashMap<>();
+        credentials.put("email", username);
+        credentials.put("password", password);
+
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + loginPath))
+            .timeout(Duration.ofSeconds(15))
+            .header("Content-Type", "application/json")
+            .header("Accept", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json.toJson(credentials), StandardCharsets.UTF_8))
+            .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        if (response.statusCode() / 100 != 2) {
+            throw new IOException("Login endpoint " + loginPath + " returned HTTP " + response.statusCode());
+        }
+
+        List<Cookie> cookies = new ArrayList<>();
+        for (String header : response.headers().allValues("Set-Cookie")) {
+            for (HttpCookie c : HttpCookie.parse(header)) {
+                Cookie.Builder builder = new Cookie.Builder(c.getName(), c.getValue())
+                    .path(c.getPath() == null ? "/" : c.getPath())
+                    .isSecure(c.getSecure())
+                    .isHttpOnly(c.isHttpOnly());
+                if (c.getMaxAge() > 0) {
+                    builder.expiresOn(new Date(System.currentTimeMillis() + c.getMaxAge() * 1000));
+                }
+                cookies.add(builder.build());
+            }
+        }
+
+        String token = null;
+        String body = response.body();
+        if (body != null && body.trim().startsWith("{")) {
+            Object value = ((Map<String, Object>) json.toType(body, Map.class)).get(tokenField);
+            token = value == null ? null : String.valueOf(value);
+        }
+
+        if (cookies.isEmpty() && token == null) {
+            throw new IOException("Login endpoint " + loginPath + " returned neither cookies nor '" + tokenField + "'");
+        }
+        return new Session(cookies, token);
+    }
+
+    /**
+     * Cookies and bearer token returned by the login endpoint
+     */
+    public static final class Session {
+        private final List<Cookie> cookies;
+        private final String token;
+
+        Session(List<Cookie> cookies, String token) {
+            this.cookies = cookies;
+            this.token = token;
+        }
+
+        public List<Cookie> getCookies() {
+            return cookies;
+        }
+
+        public String getToken() {
+            return token;
+        }
+    }
+}
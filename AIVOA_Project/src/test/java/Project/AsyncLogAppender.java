@@ -0,0 +1,227 @@
+package Project;
+
+import java.io.BufferedOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring-buffer appender behind TestLog. Test threads only enqueue events;
+ * a single writer thread renders them and writes to stdout, so output from
+ * parallel tests is never interleaved mid-line and nobody waits on the
+ * stdout lock. When the buffer is full the caller waits briefly and the
+ * event is then dropped and counted.
+ *
+ * Formats (aivoa.log.format): boxes (default, the classic box drawing),
+ * console (one timestamped line per event) and json (JSON lines).
+ *
+ * @author Test Automation Team
+ */
+public final class AsyncLogAppender {
+
+    public enum Format { BOXES, CONSOLE, JSON }
+
+    private static final int WIDTH = 40;
+    private static final AsyncLogAppender INSTANCE = new AsyncLogAppender();
+
+    private final BlockingQueue<TestLog.Event> queue;
+    private final Format format;
+    private final boolean prefixTestId;
+    private final PrintStream out;
+    private final AtomicLong dropped = new AtomicLong();
+    // Events queued and events printed, so flush() also waits for the one the writer holds
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    private AsyncLogAppender() {
+        this.queue = new ArrayBlockingQueue<>(Math.max(64, TestConfig.intValue("aivoa.log.buffer", 8192)));
+        this.format = TestConfig.enumValue("aivoa.log.format", Format.BOXES);
+        this.prefixTestId = !"none".equalsIgnoreCase(TestConfig.parallelMode()) && TestConfig.threadCount() > 1;
+        // Wrap the current System.out so build tools that capture it still see the output
+        this.out = new PrintStream(new BufferedOutputStream(System.out, 64 * 1024), false, StandardCharsets.UTF_8);
+
+        this.writer = new Thread(this::drain, "log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> flush(5_000)));
+    }
+
+    public static AsyncLogAppender instance() {
+        return INSTANCE;
+    }
+
+    void append(TestLog.Event event) {
+        try {
+            if (queue.offer(event, 100, TimeUnit.MILLISECONDS)) {
+                accepted.incrementAndGet();
+            } else {
+                dropped.incrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wait until every event appended before this call has been written,
+     * including one the writer has already taken from the queue
+     */
+    public void flush(long timeoutMs) {
+        long target = accepted.get();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (written.get() < target && System.currentTimeMillis() < deadline && running) {
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        synchronized (out) {
+            if (dropped.get() > 0) {
+                out.println("⚠ " + dropped.get() + " log event(s) dropped, raise aivoa.log.buffer");
+            }
+            out.flush();
+        }
+    }
+
+    private void drain() {
+        StringBuilder sb = new StringBuilder(256);
+        while (running) {
+            TestLog.Event event;
+            try {
+                event = queue.take();
+            } catch (InterruptedException e) {
+                running = false;
+                return;
+            }
+            sb.setLength(0);
+            render(event, sb);
+            synchronized (out) {
+                out.print(sb);
+                if (queue.isEmpty()) {
+                    out.flush();
+                }
+            }
+            written.incrementAndGet();
+        }
+    }
+
+    private void render(TestLog.Event e, StringBuilder sb) {
+        switch (format) {
+            case JSON:
+                renderJson(e, sb);
+                break;
+            case CONSOLE:
+                renderConsole(e, sb);
+                break;
+            default:
+                renderBoxes(e, sb);
+        }
+    }
+
+    private void renderConsole(TestLog.Event e, StringBuilder sb) {
+        if (e.kind == TestLog.Kind.CLOSE) {
+            return;
+        }
+        String time = new SimpleDateFormat("HH:mm:ss.SSS").format(new Date(e.timestamp));
+        sb.append(time).append(' ').append(String.format("%-5s", e.level))
+          .append(" [").append(e.testId).append('/').append(e.thread).append("] ")
+          .append(e.message.replace('\n', ' ').trim()).append('\n');
+    }
+
+    private void renderJson(TestLog.Event e, StringBuilder sb) {
+        sb.append("{\"ts\":").append(e.timestamp)
+          .append(",\"level\":\"").append(e.level)
+          .append("\",\"kind\":\"").append(e.kind)
+          .append("\",\"logger\":");
+        appendJsonString(sb, e.logger);
+        sb.append(",\"test\":");
+        appendJsonString(sb, e.testId);
+        sb.append(",\"thread\":");
+        appendJsonString(sb, e.thread);
+        sb.append(",\"msg\":");
+        appendJsonString(sb, e.message);
+        sb.append("}\n");
+    }
+
+    private void renderBoxes(TestLog.Event e, StringBuilder sb) {
+        String prefix = prefixTestId ? "[" + e.testId + "] " : "";
+        switch (e.kind) {
+            case OPEN:
+                String title = "─ " + e.message + " ";
+                sb.append('\n').append(prefix).append('┌').append(title)
+                  .append(repeat('─', WIDTH - title.length())).append("┐\n");
+                break;
+            case CLOSE:
+                sb.append(prefix).append('└').append(repeat('─', WIDTH)).append("┘\n");
+                break;
+            case BANNER:
+                sb.append('\n').append(prefix).append('╔').append(repeat('═', WIDTH)).append("╗\n");
+                for (String line : e.message.split("\n")) {
+                    sb.append(prefix).append("║  ").append(pad(line, WIDTH - 2)).append("║\n");
+                }
+                sb.append(prefix).append('╚').append(repeat('═', WIDTH)).append("╝\n");
+                break;
+            case SECTION:
+                sb.append('\n').append(prefix).append('┌').append(repeat('─', WIDTH)).append("┐\n");
+                sb.append(prefix).append("│  ").append(pad(e.message, WIDTH - 2)).append("│\n");
+                sb.append(prefix).append('└').append(repeat('─', WIDTH)).append("┘\n");
+                break;
+            case STEP:
+                sb.append(prefix).append('│');
+                if (!e.message.isEmpty()) {
+                    sb.append(' ').append(e.message);
+                }
+                sb.append('\n');
+                break;
+            default:
+                sb.append(prefix).append(e.message).append('\n');
+        }
+    }
+
+    private static void appendJsonString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
+    private static String repeat(char c, int count) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    private static String pad(String text, int width) {
+        return text.length() >= width ? text + " " : text + repeat(' ', width - text.length());
+    }
+}
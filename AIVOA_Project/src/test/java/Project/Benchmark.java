@@ -0,0 +1,204 @@
+package Project;
+
+import org.openqa.selenium.json.Json;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Small sample-time benchmark harness for framework primitives.
+ * Each operation runs a number of warmup iterations that are thrown away,
+ * then measured iterations whose latencies give p50/p90/p99/max and
+ * throughput. Results are compared with a saved baseline: an operation
+ * whose p50 or p90 grew by more than the tolerance (plus a small absolute
+ * slack for timer noise) is reported as a regression.
+ *
+ * Baseline numbers are absolute and only hold on the machine (and load)
+ * they were recorded on. Without a baseline every operation fails, so a
+ * fresh checkout can't pass unchecked; aivoa.bench.updateBaseline=true
+ * records one to commit for that machine.
+ *
+ * @author Test Automation Team
+ */
+public class Benchmark {
+
+    private static final TestLog log = TestLog.get(Benchmark.class);
+
+    private final int warmup;
+    private final int iterations;
+    private final File baselineFile;
+    private final double tolerance;
+    private final long slackNanos;
+    private final Json json = new Json();
+    private final Map<String, Result> results = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, Object>> baseline;
+    private final boolean updateBaseline;
+
+    public Benchmark(File baselineFile) {
+        this.warmup = Math.max(0, TestConfig.intValue("aivoa.bench.warmup", 10));
+        this.iterations = Math.max(1, TestConfig.intValue("aivoa.bench.iterations", 50));
+        this.tolerance = TestConfig.doubleValue("aivoa.bench.tolerance", 0.25);
+        this.slackNanos = TestConfig.longValue("aivoa.bench.slackMs", 2) * 1_000_000;
+        this.baselineFile = baselineFile;
+        this.baseline = loadBaseline();
+        this.updateBaseline = TestConfig.booleanValue("aivoa.bench.updateBaseline", false);
+        if (baseline.isEmpty() && !updateBaseline) {
+            log.warn("⚠ No benchmark baseline at {}: every operation will fail. Record one on this machine with "
+                + "-Daivoa.bench.updateBaseline=true and commit it", baselineFile.getPath());
+        }
+    }
+
+    /**
+     * Warm up, then time every measured iteration of the operation
+     */
+    public Result run(String name, Runnable operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.run();
+        }
+        long[] samples = new long[iterations];
+        long total = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.run();
+            samples[i] = System.nanoTime() - start;
+        }
+        total = System.nanoTime() - total;
+
+        Result result = new Result(name, samples, total);
+        results.put(name, result);
+        log.step("{}", result);
+        return result;
+    }
+
+    /**
+     * Description of the regression against the baseline, or null if there is none.
+     * A missing baseline counts as a failure unless a new one is being recorded.
+     */
+    public String regression(Result result) {
+        if (updateBaseline) {
+            return null;
+        }
+        if (baseline.isEmpty()) {
+            return result.name + ": no baseline in " + baselineFile.getPath()
+                + " (record one with -Daivoa.bench.updateBaseline=true)";
+        }
+        Map<String, Object> base = baseline.get(result.name);
+        if (base == null) {
+            return null;
+        }
+        List<String> problems = new ArrayList<>();
+        check(problems, "p50", result.p50, ((Number) base.get("p50Nanos")).longValue());
+        check(problems, "p90", result.p90, ((Number) base.get("p90Nanos")).longValue());
+        return problems.isEmpty() ? null : result.name + ": " + String.join(", ", problems);
+    }
+
+    /**
+     * Write this run to the results file, and to the baseline file when
+     * aivoa.bench.updateBaseline=true
+     */
+    public void save(File resultsFile) {
+        Map<String, Object> current = new TreeMap<>();
+        for (Result r : results.values()) {
+            current.put(r.name, r.toMap());
+        }
+        write(resultsFile, current);
+
+        if (updateBaseline) {
+            write(baselineFile, current);
+            log.info("✓ Benchmark baseline written: {}", baselineFile.getPath());
+        }
+    }
+
+    private void check(List<String> problems, String metric, long actual, long expected) {
+        long limit = (long) (expected * (1 + tolerance)) + slackNanos;
+        if (actual > limit) {
+            problems.add(String.format("%s %.2f ms > %.2f ms baseline (+%.0f%%)",
+                metric, actual / 1e6, expected / 1e6, (actual - expected) * 100.0 / Math.max(1, expected)));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, Object>> loadBaseline() {
+        if (!baselineFile.exists()) {
+            return new LinkedHashMap<>();
+        }
+        try {
+            String content = new String(Files.readAllBytes(baselineFile.toPath()), StandardCharsets.UTF_8);
+            Map<String, Map<String, Object>> saved = json.toType(content, Map.class);
+            return saved == null ? new LinkedHashMap<>() : saved;
+        } catch (Exception e) {
+            log.warn("⚠ Ignoring unreadable benchmark baseline: {}", e.getMessage());
+            return new LinkedHashMap<>();
+        }
+    }
+
+    private void write(File file, Map<String, Object> content) {
+        try {
+            File parent = file.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            Files.write(file.toPath(), json.toJson(content).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("⚠ Could not write {}: {}", file.getPath(), e.getMessage());
+        }
+    }
+
+    /**
+     * Latency percentiles and throughput of one operation
+     */
+    public static final class Result {
+        private final String name;
+        private final int count;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long max;
+        private final double opsPerSecond;
+
+        Result(String name, long[] samples, long totalNanos) {
+            long[] sorted = samples.clone();
+            Arrays.sort(sorted);
+            this.name = name;
+            this.count = sorted.length;
+            this.p50 = percentile(sorted, 50);
+            this.p90 = percentile(sorted, 90);
+            this.p99 = percentile(sorted, 99);
+            this.max = sorted[sorted.length - 1];
+            this.opsPerSecond = sorted.length * 1e9 / Math.max(1, totalNanos);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> m = new LinkedHashMap<>();
+            m.put("count", count);
+            m.put("p50Nanos", p50);
+            m.put("p90Nanos", p90);
+            m.put("p99Nanos", p99);
+            m.put("maxNanos", max);
+            m.put("opsPerSecond", Math.round(opsPerSecond * 10) / 10.0);
+            return m;
+        }
+
+        private static long percentile(long[] sorted, int p) {
+            int index = (int) Math.ceil(p / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-34s n=%-4d p50=%7.2f p90=%7.2f p99=%7.2f max=%7.2f ms %8.1f ops/s",
+                name, count, p50 / 1e6, p90 / 1e6, p99 / 1e6, max / 1e6, opsPerSecond);
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package Project;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * How Chrome is launched, selected with aivoa.browser.profile:
+ *
+ *   standard  headed and maximized, the browser a person would see
+ *   headless  headless with a fixed aivoa.browser.viewport
+ *   lean      headless with a fixed viewport, background networking and
+ *             unneeded Chrome features switched off, and requests matching
+ *             aivoa.browser.block (images, fonts, trackers) blocked over
+ *             DevTools before the first page loads
+ *
+ * The default is headless when aivoa.headless=true, standard otherwise.
+ *
+ * @author Test Automation Team
+ */
+public enum BrowserProfile {
+
+    STANDARD, HEADLESS, LEAN;
+
+    private static final TestLog log = TestLog.get(BrowserProfile.class);
+
+    private static final List<String> LEAN_ARGUMENTS = Arrays.asList(
+        "--disable-background-networking",
+        "--disable-component-update",
+        "--disable-default-apps",
+        "--disable-extensions",
+        "--disable-sync",
+        "--disable-client-side-phishing-detection",
+        "--disable-domain-reliability",
+        "--disable-breakpad",
+        "--disable-notifications",
+        "--disable-features=Translate,OptimizationHints,MediaRouter,AutofillServerCommunication,"
+            + "CertificateTransparencyComponentUpdater,InterestFeedContentSuggestions",
+        "--metrics-recording-only",
+        "--no-default-browser-check",
+        "--no-first-run",
+        "--mute-audio");
+
+    private static final Pattern VIEWPORT = Pattern.compile("\\s*([1-9]\\d{0,4})\\s*[xX]\\s*([1-9]\\d{0,4})\\s*");
+
+    private static final String DEFAULT_BLOCK =
+        "*.png,*.jpg,*.jpeg,*.gif,*.webp,*.svg,*.ico,*.woff,*.woff2,*.ttf,*.otf,"
+        + "*google-analytics.com*,*googletagmanager.com*,*doubleclick.net*,*hotjar.com*,*segment.io*,*clarity.ms*";
+
+    public static BrowserProfile fromConfig() {
+        String name = TestConfig.stringValue("aivoa.browser.profile",
+            TestConfig.booleanValue("aivoa.headless", false) ? "headless" : "standard");
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public String id() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Launch options: the crash-prevention flags every profile needs plus the profile's own
+     */
+    public ChromeOptions options() {
+        ChromeOptions options = new ChromeOptions();
+        options.addArguments("--disable-dev-shm-usage"); // Prevent memory issues
+        options.addArguments("--no-sandbox"); // Bypass OS security model
+        options.addArguments("--disable-gpu"); // Disable GPU acceleration
+        options.addArguments("--remote-allow-origins=*"); // Fix CORS issues
+        if (this != STANDARD) {
+            Dimension viewport = viewport();
+            options.addArguments("--headless=new", "--window-size=" + viewport.getWidth() + "," + viewport.getHeight());
+        }
+        if (this == LEAN) {
+            options.addArguments(LEAN_ARGUMENTS);
+        }
+        return options;
+    }
+
+    /**
+     * Size the window and install the URL blocklist on a freshly started browser
+     */
+    public void configure(WebDriver driver) {
+        if (this == STANDARD) {
+            driver.manage().window().maximize();
+        } else {
+            driver.manage().window().setSize(viewport());
+        }
+
+        List<String> patterns = blockedPatterns();
+        if (patterns.isEmpty()) {
+            return;
+        }
+        if (!(driver instanceof HasDevTools)) {
+            log.warn("⚠ Browser has no DevTools, nothing is blocked");
+            return;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) driver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            devTools.send(new Command<Void>("Network.enable", new LinkedHashMap<>()));
+            Map<String, Object> params = new LinkedHashMap<>();
+            params.put("urls", patterns);
+            devTools.send(new Command<Void>("Network.setBlockedURLs", params));
+            log.debug("Blocking {} URL pattern(s): {}", patterns.size(), patterns);
+        } catch (Exception e) {
+            log.warn("⚠ Could not install the URL blocklist: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * aivoa.browser.block as a list; the lean profile blocks images, fonts and trackers by default
+     */
+    public List<String> blockedPatterns() {
+        String value = TestConfig.stringValue("aivoa.browser.block", this == LEAN ? DEFAULT_BLOCK : "");
+        if ("none".equalsIgnoreCase(value.trim())) {
+            return Collections.emptyList();
+        }
+        List<String> patterns = new ArrayList<>();
+        for (String pattern : value.split(",")) {
+            if (!pattern.trim().isEmpty()) {
+                patterns.add(pattern.trim());
+            }
+        }
+        return patterns;
+    }
+
+    /**
+     * aivoa.browser.viewport as WIDTHxHEIGHT, 1920x1080 by default or when the value is malformed
+     */
+    static Dimension viewport() {
+        String value = TestConfig.stringValue("aivoa.browser.viewport", "1920x1080");
+        Matcher size = VIEWPORT.matcher(value);
+        if (!size.matches()) {
+            log.warn("⚠ Invalid aivoa.browser.viewport '{}', expected WIDTHxHEIGHT; using 1920x1080", value);
+            return new Dimension(1920, 1080);
+        }
+        return new Dimension(Integer.parseInt(size.group(1)), Integer.parseInt(size.group(2)));
+    }
+}
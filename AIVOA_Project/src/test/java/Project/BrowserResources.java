@@ -0,0 +1,300 @@
+package Project;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Memory and CPU used by each browser session, to compare browser profiles
+ * and to size how many sessions a node can run at once.
+ *
+ * A session's Chrome process is found by the user data directory
+ * chromedriver reports in the capabilities. Each sample adds up the
+ * process and its children: proportional set size (PSS, so shared pages
+ * are counted once across sessions; RSS where /proc has no smaps_rollup)
+ * and CPU time, plus the page's JS heap. Where the process cannot be
+ * found (remote browsers, non-Linux hosts) only the JS heap is recorded.
+ *
+ * @author Test Automation Team
+ */
+public class BrowserResources {
+
+    private static final TestLog log = TestLog.get(BrowserResources.class);
+
+    private static final String JS_HEAP_SCRIPT =
+        "return window.performance && performance.memory ? performance.memory.usedJSHeapSize : null;";
+
+    private final String profile;
+    private final File reportFile;
+    private final Map<WebDriver, Session> sessions = Collections.synchronizedMap(new WeakHashMap<>());
+    private final List<Session> all = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger sequence = new AtomicInteger();
+
+    public BrowserResources(String profile, File reportFile) {
+        this.profile = profile;
+        this.reportFile = reportFile;
+    }
+
+    /**
+     * Sampling is on unless aivoa.browser.resources=false
+     */
+    public static boolean isEnabled() {
+        return TestConfig.booleanValue("aivoa.browser.resources", true);
+    }
+
+    /**
+     * Start following a browser that was just started
+     */
+    public void track(WebDriver driver) {
+        Session session = new Session(sequence.incrementAndGet(), findBrowserProcess(driver));
+        sessions.put(driver, session);
+        all.add(session);
+        if (session.process == null) {
+            log.debug("Browser process of session {} not found, recording the JS heap only", session.id);
+        }
+    }
+
+    /**
+     * Take a sample of the session, e.g. when a test hands its browser back
+     */
+    public void sample(WebDriver driver) {
+        Session session = sessions.get(driver);
+        if (session == null) {
+            return;
+        }
+        long jsHeap = -1;
+        try {
+            Object value = ((JavascriptExecutor) driver).executeScript(JS_HEAP_SCRIPT);
+            jsHeap = value instanceof Number ? ((Number) value).longValue() : -1;
+        } catch (Exception e) {
+            // Page gone or busy; the process numbers are still worth keeping
+        }
+        long memory = -1;
+        long cpuNanos = -1;
+        if (session.process != null && session.process.isAlive()) {
+            memory = 0;
+            cpuNanos = 0;
+            for (ProcessHandle process : tree(session.process)) {
+                memory += memoryBytes(process.pid());
+                cpuNanos += process.info().totalCpuDuration().map(Duration::toNanos).orElse(0L);
+            }
+        }
+        session.add(memory, cpuNanos, jsHeap);
+    }
+
+    /**
+     * One line per session and an estimate of the sessions this node can hold;
+     * also written to the report file
+     */
+    public String report() {
+        List<Session> snapshot;
+        synchronized (all) {
+            snapshot = new ArrayList<>(all);
+        }
+        StringBuilder sb = new StringBuilder();
+        long peakSum = 0;
+        long peakMax = 0;
+        double cpuShareSum = 0;
+        int measured = 0;
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Session session : snapshot) {
+            Map<String, Object> row = session.toMap();
+            rows.add(row);
+            if (session.samples == 0) {
+                continue;
+            }
+            sb.append(String.format("#%-3d samples=%-4d peak=%s cpu=%6.1fs (%5.1f%% of a core) jsHeap=%s%n",
+                session.id, session.samples, mb(session.peakMemory), session.cpuNanos / 1e9,
+                session.cpuShare() * 100, mb(session.peakJsHeap)));
+            if (session.peakMemory > 0) {
+                peakSum += session.peakMemory;
+                peakMax = Math.max(peakMax, session.peakMemory);
+                cpuShareSum += session.cpuShare();
+                measured++;
+            }
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("profile", profile);
+        summary.put("sessions", snapshot.size());
+        if (measured > 0) {
+            long nodeMemory = nodeMemoryBytes();
+            int cores = Runtime.getRuntime().availableProcessors();
+            double avgCpuShare = cpuShareSum / measured;
+            long byMemory = nodeMemory > 0 ? (long) (nodeMemory * 0.8 / peakMax) : -1;
+            long byCpu = avgCpuShare > 0 ? (long) (cores * 0.8 / avgCpuShare) : -1;
+            sb.append(String.format("Profile %s: %d session(s), peak memory avg %s max %s, CPU %.1f%% of a core per session%n",
+                profile, measured, mb(peakSum / measured), mb(peakMax), avgCpuShare * 100));
+            sb.append(String.format("Node (%s, %d cores) holds about %s session(s) by memory, %s by CPU (80%% headroom)%n",
+                mb(nodeMemory), cores, byMemory < 0 ? "?" : byMemory, byCpu < 0 ? "?" : byCpu));
+            summary.put("avgPeakMemoryMb", peakSum / measured / 1048576.0);
+            summary.put("maxPeakMemoryMb", peakMax / 1048576.0);
+            summary.put("avgCpuShare", avgCpuShare);
+            summary.put("nodeMemoryMb", nodeMemory / 1048576.0);
+            summary.put("nodeCores", cores);
+            summary.put("sessionsByMemory", byMemory);
+            summary.put("sessionsByCpu", byCpu);
+        } else {
+            sb.append("No process memory or CPU samples (no test finished, or browser processes not visible on this host)\n");
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("summary", summary);
+        report.put("sessions", rows);
+        try {
+            File parent = reportFile.getAbsoluteFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            Files.write(reportFile.toPath(), new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            log.warn("⚠ Could not write {}: {}", reportFile.getPath(), e.getMessage());
+        }
+        return sb.toString();
+    }
+
+    /**
+     * The Chrome browser process started with the session's --user-data-dir
+     */
+    @SuppressWarnings("unchecked")
+    private static ProcessHandle findBrowserProcess(WebDriver driver) {
+        if (!(driver instanceof HasCapabilities)) {
+            return null;
+        }
+        try {
+            Capabilities capabilities = ((HasCapabilities) driver).getCapabilities();
+            Object chrome = capabilities.getCapability("chrome");
+            Object dir = chrome instanceof Map ? ((Map<String, Object>) chrome).get("userDataDir") : null;
+            if (dir == null) {
+                return null;
+            }
+            String flag = "--user-data-dir=" + dir;
+            try (Stream<ProcessHandle> processes = ProcessHandle.allProcesses()) {
+                return processes.filter(p -> {
+                    String[] args = p.info().arguments().orElse(new String[0]);
+                    boolean browser = false;
+                    for (String arg : args) {
+                        if (arg.startsWith("--type=")) {
+                            return false;
+                        }
+                        browser |= arg.equals(flag);
+                    }
+                    return browser;
+                }).findFirst().orElse(null);
+            }
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static List<ProcessHandle> tree(ProcessHandle root) {
+        List<ProcessHandle> processes = new ArrayList<>();
+        processes.add(root);
+        try (Stream<ProcessHandle> children = root.descendants()) {
+            children.forEach(processes::add);
+        }
+        return processes;
+    }
+
+    /**
+     * PSS from /proc/[pid]/smaps_rollup, RSS from /proc/[pid]/status as fallback; 0 if unreadable
+     */
+    static long memoryBytes(long pid) {
+        long pss = procValueKb("/proc/" + pid + "/smaps_rollup", "Pss:");
+        long kb = pss >= 0 ? pss : procValueKb("/proc/" + pid + "/status", "VmRSS:");
+        return Math.max(0, kb) * 1024;
+    }
+
+    private static long procValueKb(String path, String key) {
+        try {
+            for (String line : Files.readAllLines(Paths.get(path), StandardCharsets.UTF_8)) {
+                if (line.startsWith(key)) {
+                    return Long.parseLong(line.substring(key.length()).trim().split("\\s+")[0]);
+                }
+            }
+        } catch (Exception e) {
+            // Process gone or /proc not available
+        }
+        return -1;
+    }
+
+    private static long nodeMemoryBytes() {
+        try {
+            return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getTotalMemorySize();
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    private static String mb(long bytes) {
+        return bytes < 0 ? "n/a" : String.format("%.0f MB", bytes / 1048576.0);
+    }
+
+    /**
+     * Peak memory and JS heap and the latest CPU time of one browser session
+     */
+    private static final class Session {
+        private final int id;
+        private final ProcessHandle process;
+        private final long startedAt;
+        private int samples;
+        private long peakMemory = -1;
+        private long peakJsHeap = -1;
+        private long cpuNanos = -1;
+        private long lastSampleAt;
+
+        Session(int id, ProcessHandle process) {
+            this.id = id;
+            this.process = process;
+            this.startedAt = process == null ? System.currentTimeMillis()
+                : process.info().startInstant().map(Instant::toEpochMilli).orElse(System.currentTimeMillis());
+        }
+
+        synchronized void add(long memory, long cpu, long jsHeap) {
+            samples++;
+            peakMemory = Math.max(peakMemory, memory);
+            peakJsHeap = Math.max(peakJsHeap, jsHeap);
+            cpuNanos = Math.max(cpuNanos, cpu);
+            lastSampleAt = System.currentTimeMillis();
+        }
+
+        /**
+         * CPU time over the session's lifetime up to the last sample, 1.0 = one core busy
+         */
+        synchronized double cpuShare() {
+            long wall = lastSampleAt - startedAt;
+            return cpuNanos <= 0 || wall <= 0 ? 0 : cpuNanos / (wall * 1e6);
+        }
+
+        synchronized Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("session", id);
+            map.put("pid", Optional.ofNullable(process).map(ProcessHandle::pid).orElse(null));
+            map.put("samples", samples);
+            map.put("peakMemoryMb", peakMemory < 0 ? null : peakMemory / 1048576.0);
+            map.put("peakJsHeapMb", peakJsHeap < 0 ? null : peakJsHeap / 1048576.0);
+            map.put("cpuSeconds", cpuNanos < 0 ? null : cpuNanos / 1e9);
+            map.put("cpuShare", cpuShare());
+            return map;
+        }
+    }
+}
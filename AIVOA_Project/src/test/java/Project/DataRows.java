@@ -0,0 +1,189 @@
+package Project;
+
+import org.openqa.selenium.json.Json;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Lazy row source for TestNG data providers. Rows are read one line at a
+ * time from a CSV file (first line is the header) or a JSON lines file, as
+ * TestNG asks for them. Each row is handed to the test as a single
+ * Map&lt;String, String&gt; argument, with its line number under "_line".
+ *
+ * Only a data provider without parallel = true stays lazy: TestNG reads a
+ * parallel provider's whole iterator into its worker list before the first
+ * row runs. Rows therefore run one after another, and concurrency for a
+ * large dataset comes from running shards in separate JVMs or CI workers.
+ *
+ * Rows can be sharded across CI workers with aivoa.data.shardIndex and
+ * aivoa.data.shardCount: worker i of n only sees rows where row % n == i.
+ * Blank lines and lines starting with # are skipped. CSV values may be
+ * quoted ("a, b" and "say ""hi""") but a record must fit on one line.
+ *
+ * @author Test Automation Team
+ */
+public class DataRows implements Iterator<Object[]>, AutoCloseable {
+
+    private static final TestLog log = TestLog.get(DataRows.class);
+    private static final Json JSON = new Json();
+
+    private final File file;
+    private final BufferedReader reader;
+    private final boolean jsonLines;
+    private final int shardIndex;
+    private final int shardCount;
+    private final int limit;
+    private List<String> header;
+    private Map<String, String> next;
+    private int lineNumber;
+    private int rowNumber;
+    private int returned;
+    private boolean closed;
+
+    private DataRows(File file, int shardIndex, int shardCount, int limit) throws IOException {
+        this.file = file;
+        this.reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
+        this.jsonLines = file.getName().endsWith(".jsonl");
+        this.shardIndex = shardIndex;
+        this.shardCount = shardCount;
+        this.limit = limit;
+    }
+
+    /**
+     * Open a dataset with sharding and row limit (aivoa.data.limit) from TestConfig
+     */
+    public static DataRows open(File file) {
+        int count = Math.max(1, TestConfig.intValue("aivoa.data.shardCount", 1));
+        int index = Math.floorMod(TestConfig.intValue("aivoa.data.shardIndex", 0), count);
+        int limit = TestConfig.intValue("aivoa.data.limit", Integer.MAX_VALUE);
+        try {
+            DataRows rows = new DataRows(file, index, count, limit <= 0 ? Integer.MAX_VALUE : limit);
+            log.info("✓ Streaming {} (shard {}/{})", file.getPath(), index + 1, count);
+            return rows;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open dataset " + file.getPath(), e);
+        }
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        if (next == null && !closed) {
+            next = readRow();
+            if (next == null) {
+                close();
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public synchronized Object[] next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map<String, String> row = next;
+        next = null;
+        returned++;
+        return new Object[] { row };
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closed = true;
+            try {
+                reader.close();
+            } catch (IOException e) {
+                // Nothing left to read anyway
+            }
+            log.info("✓ {}: {} row(s) returned", file.getName(), returned);
+        }
+    }
+
+    /**
+     * Next row that belongs to this shard, or null at the end of the file
+     */
+    private Map<String, String> readRow() {
+        if (returned >= limit) {
+            return null;
+        }
+        try {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                if (!jsonLines && header == null) {
+                    header = parseCsvLine(line);
+                    continue;
+                }
+                if (rowNumber++ % shardCount != shardIndex) {
+                    continue;
+                }
+                Map<String, String> row = jsonLines ? parseJsonLine(line) : toRow(parseCsvLine(line));
+                row.put("_line", String.valueOf(lineNumber));
+                return row;
+            }
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + file.getPath() + " at line " + lineNumber, e);
+        }
+    }
+
+    private Map<String, String> toRow(List<String> values) {
+        Map<String, String> row = new LinkedHashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            row.put(header.get(i), i < values.size() ? values.get(i) : "");
+        }
+        return row;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> parseJsonLine(String line) {
+        Map<String, Object> parsed = JSON.toType(line, Map.class);
+        Map<String, String> row = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> e : parsed.entrySet()) {
+            row.put(e.getKey(), e.getValue() == null ? "" : String.valueOf(e.getValue()));
+        }
+        return row;
+    }
+
+    static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder sb = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    sb.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    sb.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(sb.toString());
+                sb.setLength(0);
+            } else {
+                sb.append(c);
+            }
+        }
+        values.add(sb.toString());
+        return values;
+    }
+}
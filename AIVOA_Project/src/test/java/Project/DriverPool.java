@@ -0,0 +1,252 @@
+package Project;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Bounded pool of warm browsers. A driver is handed out per test and reset
+ * to a clean state when it comes back, instead of paying for a new browser
+ * process every time. Crashed or unresponsive drivers are quit and replaced.
+ * A driver can also be returned with its page state kept (e.g. an open form)
+ * for the next acquireWithState() caller; anyone else gets it reset.
+ *
+ * @author Test Automation Team
+ */
+public class DriverPool {
+
+    private static final TestLog log = TestLog.get(DriverPool.class);
+
+    private static final String CLEAR_STORAGE_SCRIPT =
+        "try { window.localStorage.clear(); } catch (e) {}" +
+        "try { window.sessionStorage.clear(); } catch (e) {}";
+
+    private final Supplier<WebDriver> factory;
+    private final int maxSize;
+    private final Semaphore permits;
+    private final BlockingDeque<WebDriver> idle = new LinkedBlockingDeque<>();
+    private final Set<WebDriver> keptState = ConcurrentHashMap.newKeySet();
+
+    // Metrics
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+    private final AtomicInteger recycles = new AtomicInteger();
+    private final AtomicInteger stateReuses = new AtomicInteger();
+    private final AtomicInteger started = new AtomicInteger();
+    private final AtomicLong startupNanos = new AtomicLong();
+    private final AtomicLong maxStartupNanos = new AtomicLong();
+
+    public DriverPool(Supplier<WebDriver> factory, int maxSize) {
+        this.factory = factory;
+        this.maxSize = maxSize;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Start browsers up front so the first tests get a warm one
+     */
+    public void warmUp(int count) {
+        int target = Math.min(count, maxSize);
+        while (idle.size() < target) {
+            idle.offerLast(start());
+        }
+    }
+
+    /**
+     * Borrow a healthy driver, blocking while every browser is in use
+     */
+    public WebDriver acquire() {
+        return take(false);
+    }
+
+    /**
+     * Borrow a driver, preferring one released with releaseKeepingState().
+     * Falls back to a clean driver when none is idle; callers must check
+     * the page state they expect.
+     */
+    public WebDriver acquireWithState() {
+        return take(true);
+    }
+
+    /**
+     * Return a driver without resetting it, so its page state can be picked
+     * up by the next acquireWithState() call
+     */
+    public void releaseKeepingState(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        keptState.add(driver);
+        idle.offerFirst(driver);
+        permits.release();
+    }
+
+    /**
+     * Return a driver to the pool. It is reset to a clean state, or quit
+     * and dropped if the reset fails.
+     */
+    public void release(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        try {
+            reset(driver);
+            idle.offerFirst(driver);
+        } catch (Exception e) {
+            log.warn("⚠ Browser could not be reset, discarding it: {}", e.getMessage());
+            recycles.incrementAndGet();
+            quitQuietly(driver);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private WebDriver take(boolean preferKeptState) {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting for a browser", e);
+        }
+
+        try {
+            if (preferKeptState) {
+                for (WebDriver candidate : idle) {
+                    if (keptState.contains(candidate) && idle.remove(candidate)) {
+                        keptState.remove(candidate);
+                        if (isHealthy(candidate)) {
+                            hits.incrementAndGet();
+                            stateReuses.incrementAndGet();
+                            return candidate;
+                        }
+                        recycles.incrementAndGet();
+                        quitQuietly(candidate);
+                    }
+                }
+            }
+
+            WebDriver driver;
+            while ((driver = idle.pollFirst()) != null) {
+                // Drop the kept-state mark first, so a driver quit below leaves nothing behind
+                boolean kept = keptState.remove(driver);
+                if (isHealthy(driver) && (!kept || resetQuietly(driver))) {
+                    hits.incrementAndGet();
+                    return driver;
+                }
+                log.warn("⚠ Pooled browser is unresponsive, replacing it");
+                recycles.incrementAndGet();
+                quitQuietly(driver);
+            }
+            misses.incrementAndGet();
+            return start();
+
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Quit a borrowed driver instead of returning it, e.g. after a crash
+     */
+    public void discard(WebDriver driver) {
+        if (driver == null) {
+            return;
+        }
+        recycles.incrementAndGet();
+        quitQuietly(driver);
+        permits.release();
+    }
+
+    /**
+     * Quit every idle browser and print pool metrics
+     */
+    public void shutdown() {
+        List<WebDriver> drivers = new ArrayList<>();
+        idle.drainTo(drivers);
+        keptState.clear();
+        for (WebDriver driver : drivers) {
+            quitQuietly(driver);
+        }
+        log.info("✓ Driver pool closed: {}", metrics());
+    }
+
+    public String metrics() {
+        int count = started.get();
+        long avgMs = count == 0 ? 0 : startupNanos.get() / count / 1_000_000;
+        return "size=" + maxSize +
+               ", hits=" + hits.get() +
+               ", misses=" + misses.get() +
+               ", recycles=" + recycles.get() +
+               ", stateReuses=" + stateReuses.get() +
+               ", started=" + count +
+               ", avgStartupMs=" + avgMs +
+               ", maxStartupMs=" + maxStartupNanos.get() / 1_000_000;
+    }
+
+    private WebDriver start() {
+        long begin = System.nanoTime();
+        WebDriver driver = factory.get();
+        long elapsed = System.nanoTime() - begin;
+
+        started.incrementAndGet();
+        startupNanos.addAndGet(elapsed);
+        maxStartupNanos.accumulateAndGet(elapsed, Math::max);
+        log.info("✓ Browser started in {} ms", elapsed / 1_000_000);
+        return driver;
+    }
+
+    /**
+     * Close extra windows, clear storage and cookies and park on about:blank
+     */
+    private void reset(WebDriver driver) {
+        Set<String> handles = driver.getWindowHandles();
+        String main = handles.iterator().next();
+        for (String handle : handles) {
+            if (!handle.equals(main)) {
+                driver.switchTo().window(handle);
+                driver.close();
+            }
+        }
+        driver.switchTo().window(main);
+
+        ((JavascriptExecutor) driver).executeScript(CLEAR_STORAGE_SCRIPT);
+        driver.manage().deleteAllCookies();
+        driver.get("about:blank");
+    }
+
+    private boolean resetQuietly(WebDriver driver) {
+        try {
+            reset(driver);
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private boolean isHealthy(WebDriver driver) {
+        try {
+            return !driver.getWindowHandles().isEmpty() &&
+                   Long.valueOf(1).equals(((JavascriptExecutor) driver).executeScript("return 1;"));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void quitQuietly(WebDriver driver) {
+        try {
+            driver.quit();
+        } catch (Exception e) {
+            // Browser already gone
+        }
+    }
+}
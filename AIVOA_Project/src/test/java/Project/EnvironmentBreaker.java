@@ -0,0 +1,203 @@
+package Project;
+
+import org.testng.SkipException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Suite-level circuit breaker for the AIVOA environment. The base URL and
+ * the login page are probed over HTTP before any browser is started; if the
+ * host does not answer, the breaker opens and every test is skipped at once
+ * instead of running into page-load timeouts. It also opens after
+ * aivoa.breaker.threshold consecutive test setups failed; this needs the
+ * suite's configfailurepolicy="continue", as TestNG otherwise skips every
+ * remaining test after the first failed setup.
+ *
+ * While open, the first test after aivoa.breaker.reprobeSec probes again
+ * (half-open): a healthy answer closes the breaker, anything else keeps it
+ * open for another interval. Skip reasons and probe latencies are kept for
+ * the suite report.
+ *
+ * @author Test Automation Team
+ */
+public class EnvironmentBreaker {
+
+    private static final TestLog log = TestLog.get(EnvironmentBreaker.class);
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final String baseUrl;
+    private final String loginPath;
+    private final int threshold;
+    private final long reprobeNanos;
+    private final Duration probeTimeout;
+    private final HttpClient client;
+    private final List<String> history = new ArrayList<>();
+    private State state = State.CLOSED;
+    private String reason;
+    private long openedAt;
+    private int consecutiveFailures;
+    private int skipped;
+
+    public EnvironmentBreaker(String baseUrl, String loginPath) {
+        this.baseUrl = baseUrl;
+        this.loginPath = loginPath;
+        this.threshold = Math.max(1, TestConfig.intValue("aivoa.breaker.threshold", 3));
+        this.reprobeNanos = TestConfig.longValue("aivoa.breaker.reprobeSec", 30) * 1_000_000_000L;
+        this.probeTimeout = Duration.ofMillis(TestConfig.longValue("aivoa.health.timeoutMs", 3000));
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(probeTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+    }
+
+    /**
+     * The breaker can be switched off with aivoa.breaker=false
+     */
+    public static boolean isEnabled() {
+        return TestConfig.booleanValue("aivoa.breaker", true);
+    }
+
+    /**
+     * Probe before the suite starts; opens the breaker if the environment is unreachable.
+     * Returns true if the environment answered.
+     */
+    public synchronized boolean probeUpFront() {
+        String failure = probe();
+        if (failure != null) {
+            open("AIVOA unreachable: " + failure);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Called at the start of every test setup. Throws SkipException while the
+     * breaker is open; re-probes once the re-probe interval has passed.
+     */
+    public synchronized void beforeTest() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        if (System.nanoTime() - openedAt >= reprobeNanos) {
+            state = State.HALF_OPEN;
+            log.info("⟳ Circuit breaker half-open, probing {}", baseUrl);
+            String failure = probe();
+            if (failure == null) {
+                close();
+                return;
+            }
+            open("AIVOA still unreachable: " + failure);
+        }
+        skipped++;
+        throw new SkipException("Circuit breaker open: " + reason);
+    }
+
+    /**
+     * A test setup completed; resets the failure count and closes a half-open breaker
+     */
+    public synchronized void setupSucceeded() {
+        consecutiveFailures = 0;
+        if (state != State.CLOSED) {
+            close();
+        }
+    }
+
+    /**
+     * A test setup failed; opens the breaker after threshold failures in a row
+     */
+    public synchronized void setupFailed(Throwable cause) {
+        if (cause instanceof SkipException) {
+            return;
+        }
+        consecutiveFailures++;
+        if (state == State.CLOSED && consecutiveFailures >= threshold) {
+            String failure = probe();
+            open(consecutiveFailures + " test setups failed in a row (last: " + firstLine(cause.getMessage()) + ")"
+                + (failure == null ? "" : "; " + failure));
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    /**
+     * Probe latencies, state changes and skipped test count, one per line
+     */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        for (String line : history) {
+            sb.append(line).append("\n");
+        }
+        sb.append("State: ").append(state).append(", tests skipped: ").append(skipped).append("\n");
+        return sb.toString();
+    }
+
+    /**
+     * GET the base URL and the login page; null if both answered below HTTP 500
+     */
+    private String probe() {
+        long start = System.nanoTime();
+        String failure = null;
+        for (String path : new String[] { "/", loginPath }) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(probeTimeout)
+                    .GET()
+                    .build();
+                int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                if (status >= 500) {
+                    failure = path + " returned HTTP " + status;
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = path + " probe interrupted";
+                break;
+            } catch (Exception e) {
+                failure = path + " " + e.getClass().getSimpleName() + (e.getMessage() == null ? "" : ": " + e.getMessage());
+                break;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        StepSpans.record("health.probe", elapsed, failure == null ? "ok" : "down");
+        String line = String.format("Probe %s in %d ms: %s", baseUrl, elapsed / 1_000_000, failure == null ? "OK" : failure);
+        history.add(line);
+        if (failure == null) {
+            log.info("✓ {}", line);
+        } else {
+            log.warn("⚠ {}", line);
+        }
+        return failure;
+    }
+
+    private void open(String why) {
+        state = State.OPEN;
+        reason = why;
+        openedAt = System.nanoTime();
+        history.add("OPEN: " + why);
+        log.warn("⚠ Circuit breaker open, skipping tests for {}s: {}", reprobeNanos / 1_000_000_000L, why);
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        reason = null;
+        consecutiveFailures = 0;
+        history.add("CLOSED");
+        log.info("✓ Circuit breaker closed, environment reachable again");
+    }
+
+    private static String firstLine(String message) {
+        if (message == null) {
+            return "no message";
+        }
+        int newline = message.indexOf('\n');
+        return newline < 0 ? message : message.substring(0, newline);
+    }
+}
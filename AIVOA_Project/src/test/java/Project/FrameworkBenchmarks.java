@@ -0,0 +1,188 @@
+package Project;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebElement;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmarks for the framework primitives used by the External PO tests:
+ * text entry (normal and JavaScript fallback), batched form filling,
+ * validation error collection, field error checks, locator resolution,
+ * screenshots (buffered capture, and capture through to the written PNG)
+ * and test file creation.
+ * Runs against the local stub in headless Chrome (mvn test -Pbenchmark) and
+ * fails when an operation regresses against benchmark-baseline.json, or
+ * when there is no baseline to compare with.
+ *
+ * @author Test Automation Team
+ */
+public class FrameworkBenchmarks {
+
+    private static final TestLog log = TestLog.get(FrameworkBenchmarks.class);
+
+    private static final File BASELINE_FILE = new File(TestConfig.stringValue("aivoa.bench.baseline", "benchmark-baseline.json"));
+    private static final File RESULTS_FILE = new File("target/benchmark-results.json");
+    private static final String FORM_PAGE = "external-po-form";
+    private static final File SCREENSHOT_DIR = new File("target/benchmark-screenshots");
+
+    private final AdditionalExternalPOTests suite = new AdditionalExternalPOTests();
+    private final Map<String, By> formLocators = new LinkedHashMap<>();
+    private Benchmark benchmark;
+
+    @BeforeClass
+    public void setUpBenchmarks() {
+        if (!TestConfig.useStub()) {
+            throw new SkipException("Benchmarks only run against the local stub: use -Pbenchmark or -Daivoa.env=stub");
+        }
+        new File("test-files").mkdirs();
+        benchmark = new Benchmark(BASELINE_FILE);
+
+        formLocators.put("External PO Number", AdditionalExternalPOTests.EXTERNAL_PO_NUMBER);
+        formLocators.put("Supplier Name", AdditionalExternalPOTests.SUPPLIER_NAME);
+        formLocators.put("BOL/AWR Number", AdditionalExternalPOTests.BOL_AWR_NUMBER);
+        formLocators.put("Delivery Date", AdditionalExternalPOTests.DELIVERY_DATE);
+        formLocators.put("Next", AdditionalExternalPOTests.NEXT_BUTTON);
+        formLocators.put("Upload Files", AdditionalExternalPOTests.UPLOAD_FILES_BUTTON);
+        formLocators.put("File Input", AdditionalExternalPOTests.FILE_INPUT);
+
+        suite.setupSuite();
+        TestContext.setTestId("benchmark");
+        suite.openReceiptForm();
+        log.open("BENCHMARKS");
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownBenchmarks() {
+        if (benchmark == null) {
+            return;
+        }
+        log.close();
+        benchmark.save(RESULTS_FILE);
+        ScreenshotBuffer buffer = ScreenshotBuffer.active();
+        if (buffer != null) {
+            buffer.discard("benchmark");
+        }
+        suite.tearDown();
+        suite.tearDownSuite();
+    }
+
+    @Test
+    public void enterText() {
+        assertNoRegression(benchmark.run("enterText", () ->
+            suite.enterText(AdditionalExternalPOTests.SUPPLIER_NAME, "12122", "Supplier Name")));
+    }
+
+    @Test
+    public void enterTextJavaScriptFallback() {
+        By resolved = suite.locate(FORM_PAGE, "BOL/AWR Number", AdditionalExternalPOTests.BOL_AWR_NUMBER);
+        assertNoRegression(benchmark.run("enterText.jsFallback", () ->
+            suite.tryJavaScriptEntry(resolved, "BOL-TEST-67890", "BOL/AWR Number")));
+    }
+
+    @Test
+    public void fillForm() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("External PO Number", "PO-2025-101");
+        fields.put("Supplier Name", "12122");
+        fields.put("BOL/AWR Number", "BOL-TEST-67890");
+        fields.put("Delivery Date", "12/15/2025");
+        assertNoRegression(benchmark.run("fillForm", () -> suite.fillForm(fields)));
+    }
+
+    @Test
+    public void getValidationErrors() {
+        showValidationErrors();
+        assertNoRegression(benchmark.run("getValidationErrors", suite::getValidationErrors));
+    }
+
+    @Test
+    public void hasFieldError() {
+        showValidationErrors();
+        assertNoRegression(benchmark.run("hasFieldError", () ->
+            suite.hasFieldError(AdditionalExternalPOTests.EXTERNAL_PO_NUMBER)));
+    }
+
+    @Test
+    public void locatorResolution() {
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<String, By> entry : formLocators.entrySet()) {
+            Benchmark.Result cached = benchmark.run("locate." + entry.getKey(), () ->
+                suite.locate(FORM_PAGE, entry.getKey(), entry.getValue()));
+            Benchmark.Result raw = benchmark.run("findElements." + entry.getKey(), () ->
+                suite.getDriver().findElements(entry.getValue()));
+            addRegression(regressions, cached);
+            addRegression(regressions, raw);
+        }
+        Assert.assertTrue(regressions.isEmpty(), "Benchmark regression: " + regressions);
+    }
+
+    /**
+     * Test step capture: the PNG only goes into the in-memory screenshot buffer
+     */
+    @Test
+    public void takeScreenshot() {
+        assertNoRegression(benchmark.run("takeScreenshot", () -> suite.takeScreenshot("benchmark")));
+    }
+
+    /**
+     * Capture with the buffer bypassed: queued on a screenshot service and timed
+     * until the PNG is on disk. Every frame gets its own folder so none is
+     * skipped as a duplicate of the one before.
+     */
+    @Test
+    public void takeScreenshotAndWrite() {
+        ScreenshotService service = new ScreenshotService(SCREENSHOT_DIR);
+        AtomicInteger frame = new AtomicInteger();
+        Benchmark.Result result;
+        try {
+            result = benchmark.run("takeScreenshot.write", () -> {
+                byte[] png = ((TakesScreenshot) suite.getDriver()).getScreenshotAs(OutputType.BYTES);
+                String path = "frame-" + frame.incrementAndGet() + "/benchmark.png";
+                Assert.assertTrue(service.submit(path, png), "Screenshot not queued: " + path);
+                Assert.assertTrue(service.awaitWritten(10_000), "Screenshot not written: " + path);
+            });
+        } finally {
+            service.shutdown(10_000);
+        }
+        assertNoRegression(result);
+    }
+
+    @Test
+    public void createTestFile() {
+        assertNoRegression(benchmark.run("createTestFile", () ->
+            suite.createTestFile("benchmark.pdf")));
+    }
+
+    /**
+     * Leave the External PO Number empty and press Next so the form shows its errors
+     */
+    private void showValidationErrors() {
+        WebElement poNumber = suite.getDriver().findElement(AdditionalExternalPOTests.EXTERNAL_PO_NUMBER);
+        poNumber.clear();
+        suite.getDriver().findElement(AdditionalExternalPOTests.NEXT_BUTTON).click();
+    }
+
+    private void assertNoRegression(Benchmark.Result result) {
+        String regression = benchmark.regression(result);
+        Assert.assertNull(regression, "Benchmark regression: " + regression);
+    }
+
+    private void addRegression(List<String> regressions, Benchmark.Result result) {
+        String regression = benchmark.regression(result);
+        if (regression != null) {
+            regressions.add(regression);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package Project;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram in the style of HdrHistogram: values in
+ * microseconds go into log-linear buckets with 64 sub-buckets per power of
+ * two, so every value is kept to within 1/64 (about 1.6%) from 1 µs to
+ * well beyond an hour in a fixed array of about 2.7k slots. Many threads
+ * can record at once; percentiles report the highest value of their bucket.
+ *
+ * @author Test Automation Team
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int LINEAR = SUB_COUNT * 2;
+    private static final int SLOTS = LINEAR + 40 * SUB_COUNT;
+    private static final double[] PERCENTILES = { 50, 75, 90, 95, 99, 99.9 };
+
+    private final AtomicLongArray counts = new AtomicLongArray(SLOTS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one latency in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts.incrementAndGet(index(micros));
+        total.incrementAndGet();
+        sum.addAndGet(micros);
+        max.accumulateAndGet(micros, Math::max);
+    }
+
+    public long count() {
+        return total.get();
+    }
+
+    /**
+     * Value in microseconds at or below which the given percentage of samples fall
+     */
+    public long percentileMicros(double percentile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < SLOTS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                return Math.min(highestEquivalent(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public double meanMicros() {
+        long count = total.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    public long maxMicros() {
+        return max.get();
+    }
+
+    /**
+     * One line: count, mean and the standard percentiles in ms
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder(String.format("n=%-6d mean=%8.1f", count(), meanMicros() / 1000));
+        for (double p : PERCENTILES) {
+            sb.append(String.format(" p%s=%8.1f", label(p), percentileMicros(p) / 1000.0));
+        }
+        sb.append(String.format(" max=%8.1f ms", maxMicros() / 1000.0));
+        return sb.toString();
+    }
+
+    /**
+     * Percentiles and the non-empty buckets ({fromMs, toMs, count}) for the JSON report
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("count", count());
+        map.put("meanMs", meanMicros() / 1000);
+        for (double p : PERCENTILES) {
+            map.put("p" + label(p) + "Ms", percentileMicros(p) / 1000.0);
+        }
+        map.put("maxMs", maxMicros() / 1000.0);
+        List<Map<String, Object>> buckets = new ArrayList<>();
+        for (int i = 0; i < SLOTS; i++) {
+            long c = counts.get(i);
+            if (c > 0) {
+                Map<String, Object> bucket = new LinkedHashMap<>();
+                bucket.put("fromMs", lowestEquivalent(i) / 1000.0);
+                bucket.put("toMs", highestEquivalent(i) / 1000.0);
+                bucket.put("count", c);
+                buckets.add(bucket);
+            }
+        }
+        map.put("buckets", buckets);
+        return map;
+    }
+
+    private static String label(double percentile) {
+        return percentile == (long) percentile ? String.valueOf((long) percentile) : String.valueOf(percentile);
+    }
+
+    /**
+     * Values below 128 µs get their own slot; above that, each power of two
+     * is split into 64 equal sub-buckets
+     */
+    static int index(long micros) {
+        if (micros < LINEAR) {
+            return (int) micros;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - SUB_BITS;
+        int index = LINEAR + (shift - 1) * SUB_COUNT + (int) ((micros >>> shift) - SUB_COUNT);
+        return Math.min(index, SLOTS - 1);
+    }
+
+    static long lowestEquivalent(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int shift = (index - LINEAR) / SUB_COUNT + 1;
+        long sub = (index - LINEAR) % SUB_COUNT + SUB_COUNT;
+        return sub << shift;
+    }
+
+    static long highestEquivalent(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int shift = (index - LINEAR) / SUB_COUNT + 1;
+        return lowestEquivalent(index) + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,229 @@
+package Project;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Self-healing locator cache keyed by page and logical element.
+ * The first time an element is found through its broad XPath, the cheapest
+ * selector that still identifies it uniquely is learned (id, then a CSS
+ * attribute selector, otherwise the original XPath) and saved to a file.
+ * Later lookups use the learned selector directly, with no extra round
+ * trip. Only when a lookup through it finds no element or several is the
+ * original locator checked in the page: if the element is there, the entry
+ * is learned again and the lookup answered from the new selector; if it is
+ * not on the page yet, the entry is kept.
+ *
+ * @author Test Automation Team
+ */
+public class LocatorCache {
+
+    private static final TestLog log = TestLog.get(LocatorCache.class);
+
+    /**
+     * Finds the element through the original locator and returns the cheapest
+     * unique selector for it, {using: 'fallback'} if there is none, or null
+     * if the element is not on the page yet
+     */
+    private static final String LEARN_SCRIPT = Locators.FIND_FUNCTION +
+        "var all = find(arguments[0]);" +
+        "var el = all.filter(visible)[0] || all[0];" +
+        "if (!el) { return null; }" +
+        "function unique(sel) { try { return document.querySelectorAll(sel).length === 1; } catch (e) { return false; } }" +
+        "if (el.id && unique('#' + CSS.escape(el.id))) { return { using: 'id', value: el.id }; }" +
+        "var tag = el.tagName.toLowerCase();" +
+        "var attrs = ['name', 'data-testid', 'aria-label', 'placeholder', 'type'];" +
+        "for (var i = 0; i < attrs.length; i++) {" +
+        "  var v = el.getAttribute(attrs[i]);" +
+        "  if (!v) { continue; }" +
+        "  var sel = tag + '[' + attrs[i] + '=\"' + v.replace(/\"/g, '\\\\\"') + '\"]';" +
+        "  if (unique(sel)) { return { using: 'css selector', value: sel }; }" +
+        "}" +
+        "return { using: 'fallback' };";
+
+    private final File cacheFile;
+    private final Json json = new Json();
+    private final Map<String, Map<String, String>> entries = new ConcurrentHashMap<>();
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public LocatorCache(File cacheFile) {
+        this.cacheFile = cacheFile;
+        load();
+    }
+
+    /**
+     * Returns the cheapest known locator for the element without touching the
+     * page on a hit; it heals itself when used (see CachedBy). Learns one on a
+     * miss, and returns the fallback unchanged when nothing cheaper is known.
+     */
+    public By resolve(WebDriver driver, String page, String element, By fallback) {
+        String key = page + "/" + element;
+        Stats stat = stats.computeIfAbsent(key, k -> new Stats());
+
+        Map<String, String> entry = entries.get(key);
+        if (entry != null) {
+            stat.hits.incrementAndGet();
+            return "fallback".equals(entry.get("using")) ? fallback : new CachedBy(driver, key, toBy(entry), fallback);
+        }
+
+        stat.misses.incrementAndGet();
+        try {
+            Map<String, String> learned = learn(driver, fallback);
+            if (learned == null) {
+                return fallback;
+            }
+            entries.put(key, learned);
+            return "fallback".equals(learned.get("using")) ? fallback : new CachedBy(driver, key, toBy(learned), fallback);
+        } catch (Exception e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Cheapest unique selector for the element the fallback finds, or null if it is not on the page
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, String> learn(WebDriver driver, By fallback) {
+        Object learned = ((JavascriptExecutor) driver).executeScript(LEARN_SCRIPT, Locators.toScriptLocator(fallback));
+        return learned == null ? null : new LinkedHashMap<>((Map<String, String>) learned);
+    }
+
+    /**
+     * The cached selector found no element or several. If the fallback finds the
+     * element, learn the entry again and return the locator to use now; if it
+     * does not, the element is not on the page yet and the entry is kept (null).
+     */
+    private By heal(WebDriver driver, String key, By cached, By fallback) {
+        Map<String, String> learned;
+        try {
+            learned = learn(driver, fallback);
+        } catch (Exception e) {
+            return fallback;
+        }
+        if (learned == null) {
+            return null;
+        }
+        By replacement = "fallback".equals(learned.get("using")) ? fallback : toBy(learned);
+        if (!replacement.equals(cached)) {
+            entries.put(key, learned);
+            stats.computeIfAbsent(key, k -> new Stats()).invalidations.incrementAndGet();
+            log.debug("Locator {} changed: {} -> {}", key, cached, replacement);
+        }
+        return replacement;
+    }
+
+    /**
+     * Write learned selectors to the cache file
+     */
+    public synchronized void save() {
+        try {
+            Files.write(cacheFile.toPath(),
+                json.toJson(new TreeMap<>(entries)).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("⚠ Could not save locator cache: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Hit rate and current selector per element
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Stats> e : new TreeMap<>(stats).entrySet()) {
+            Stats s = e.getValue();
+            int total = s.hits.get() + s.misses.get();
+            Map<String, String> entry = entries.get(e.getKey());
+            sb.append(e.getKey())
+              .append(": hitRate=").append(total == 0 ? 0 : s.hits.get() * 100 / total).append('%')
+              .append(" (").append(s.hits.get()).append('/').append(total).append(')')
+              .append(", invalidations=").append(s.invalidations.get())
+              .append(", selector=").append(entry == null ? "-" : entry.get("using") +
+                  (entry.get("value") == null ? "" : " " + entry.get("value")))
+              .append("\n");
+        }
+        return sb.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load() {
+        if (!cacheFile.exists()) {
+            return;
+        }
+        try {
+            String content = new String(Files.readAllBytes(cacheFile.toPath()), StandardCharsets.UTF_8);
+            Map<String, Map<String, String>> saved = json.toType(content, Map.class);
+            if (saved != null) {
+                entries.putAll(saved);
+            }
+        } catch (Exception e) {
+            log.warn("⚠ Ignoring unreadable locator cache: {}", e.getMessage());
+        }
+    }
+
+    private static By toBy(Map<String, String> entry) {
+        return "id".equals(entry.get("using")) ? By.id(entry.get("value")) : By.cssSelector(entry.get("value"));
+    }
+
+    /**
+     * A learned selector that falls back to the original locator when a
+     * lookup through it does not find exactly one element. Not Remotable, so
+     * WebDriver calls findElements() here instead of sending the selector
+     * itself; in-page scripts get the learned selector through current().
+     */
+    final class CachedBy extends By {
+        private final WebDriver driver;
+        private final String key;
+        private final By fallback;
+        private volatile By current;
+
+        CachedBy(WebDriver driver, String key, By cached, By fallback) {
+            this.driver = driver;
+            this.key = key;
+            this.current = cached;
+            this.fallback = fallback;
+        }
+
+        By current() {
+            return current;
+        }
+
+        @Override
+        public List<WebElement> findElements(SearchContext context) {
+            By selector = current;
+            List<WebElement> found = context.findElements(selector);
+            if (found.size() == 1 || !(context instanceof WebDriver)) {
+                return found;
+            }
+            By replacement = heal(driver, key, selector, fallback);
+            if (replacement == null || replacement.equals(selector)) {
+                return found;
+            }
+            current = replacement;
+            return context.findElements(replacement);
+        }
+
+        @Override
+        public String toString() {
+            return "cached(" + current + ", fallback " + fallback + ")";
+        }
+    }
+
+    private static class Stats {
+        final AtomicInteger hits = new AtomicInteger();
+        final AtomicInteger misses = new AtomicInteger();
+        final AtomicInteger invalidations = new AtomicInteger();
+    }
+}
@@ -0,0 +1,70 @@
+package Project;
+
+import org.openqa.selenium.By;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Helpers for evaluating Selenium locators inside the page with a single
+ * executeScript call instead of one WebDriver round trip per lookup.
+ *
+ * @author Test Automation Team
+ */
+public final class Locators {
+
+    /**
+     * JavaScript function resolving a {using, value} locator to all matching elements.
+     * Prepend it to a script and call find(locator, root).
+     */
+    public static final String FIND_FUNCTION =
+        "function find(l, root) {" +
+        "  root = root || document; var out = [];" +
+        "  if (l.using === 'xpath') {" +
+        "    var r = document.evaluate(l.value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);" +
+        "    for (var i = 0; i < r.snapshotLength; i++) { out.push(r.snapshotItem(i)); }" +
+        "  } else if (l.using === 'css selector') {" +
+        "    out = Array.prototype.slice.call(root.querySelectorAll(l.value));" +
+        "  } else if (l.using === 'tag name') {" +
+        "    out = Array.prototype.slice.call(root.getElementsByTagName(l.value));" +
+        "  }" +
+        "  return out;" +
+        "}" +
+        "function visible(e) {" +
+        "  if (!e || !(e.offsetWidth || e.offsetHeight || e.getClientRects().length)) { return false; }" +
+        "  var s = window.getComputedStyle(e);" +
+        "  return s.visibility !== 'hidden' && s.display !== 'none';" +
+        "}";
+
+    private Locators() {
+    }
+
+    /**
+     * Converts a locator to the {using, value} map understood by FIND_FUNCTION.
+     * By.id, By.name and By.className are sent to the browser as CSS selectors.
+     */
+    public static Map<String, Object> toScriptLocator(By locator) {
+        if (locator instanceof LocatorCache.CachedBy) {
+            locator = ((LocatorCache.CachedBy) locator).current();
+        }
+        if (!(locator instanceof By.Remotable)) {
+            throw new IllegalArgumentException("Locator cannot be evaluated in the page: " + locator);
+        }
+        By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+        String using = params.using();
+        String value = String.valueOf(params.value());
+        if ("id".equals(using) || "name".equals(using)) {
+            value = "[" + using + "=\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"]";
+            using = "css selector";
+        } else if ("class name".equals(using)) {
+            value = "." + value;
+            using = "css selector";
+        }
+        if (!"xpath".equals(using) && !"css selector".equals(using) && !"tag name".equals(using)) {
+            throw new IllegalArgumentException("Unsupported locator strategy '" + using + "': " + locator);
+        }
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("using", using);
+        map.put("value", value);
+        return map;
+    }
+}
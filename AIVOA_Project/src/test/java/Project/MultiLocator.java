@@ -0,0 +1,165 @@
+package Project;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A logical element with several candidate locators. All candidates are
+ * evaluated together in one in-page script per poll, so misses cost nothing,
+ * and the first candidate with a visible match wins. The winning candidate
+ * is remembered and tried first on later lookups.
+ *
+ * @author Test Automation Team
+ */
+public class MultiLocator {
+
+    /**
+     * Returns {index, elements} for the first candidate (in the given order)
+     * with at least one visible, enabled match, or null if none matches
+     */
+    private static final String RACE_SCRIPT = Locators.FIND_FUNCTION +
+        "var candidates = arguments[0], order = arguments[1];" +
+        "for (var i = 0; i < order.length; i++) {" +
+        "  var matches = find(candidates[order[i]]).filter(function (e) { return visible(e) && !e.disabled; });" +
+        "  if (matches.length) { return { index: order[i], elements: matches }; }" +
+        "}" +
+        "return null;";
+
+    // Winning candidate index per logical element, shared by all threads
+    private static final Map<String, Integer> WINNERS = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final List<By> candidates;
+    private final List<Map<String, Object>> scriptCandidates = new ArrayList<>();
+
+    public MultiLocator(String name, By... candidates) {
+        this.name = name;
+        this.candidates = Collections.unmodifiableList(Arrays.asList(candidates));
+        for (By candidate : candidates) {
+            scriptCandidates.add(Locators.toScriptLocator(candidate));
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Wait for the first visible match across all candidates
+     */
+    public Match find(WebDriver driver, Duration timeout) {
+        return find(driver, timeout, Collections.<Integer>emptySet());
+    }
+
+    /**
+     * Wait for the first visible match, skipping candidates that already proved wrong
+     */
+    public Match find(WebDriver driver, Duration timeout, Set<Integer> excluded) {
+        List<Integer> order = order(excluded);
+        if (order.isEmpty()) {
+            throw new TimeoutException("No candidates left for " + name);
+        }
+
+        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        wait.pollingEvery(Duration.ofMillis(50));
+        wait.withMessage("none of the " + order.size() + " candidates for '" + name + "' matched");
+
+        Match match = wait.until(d -> race(d, order));
+        WINNERS.put(name, match.getIndex());
+        return match;
+    }
+
+    /**
+     * All visible matches of the first matching candidate, or an empty list on timeout
+     */
+    public List<WebElement> findAll(WebDriver driver, Duration timeout) {
+        try {
+            return find(driver, timeout).getElements();
+        } catch (TimeoutException e) {
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * One race over all candidates without waiting, null if none matches;
+     * usable as a wait condition
+     */
+    public Match poll(WebDriver driver) {
+        return race(driver, order(Collections.<Integer>emptySet()));
+    }
+
+    /**
+     * Forget the remembered winner, e.g. when it matched but led nowhere
+     */
+    public void forgetWinner() {
+        WINNERS.remove(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Match race(WebDriver driver, List<Integer> order) {
+        Object result = ((JavascriptExecutor) driver).executeScript(RACE_SCRIPT, scriptCandidates, order);
+        if (result == null) {
+            return null;
+        }
+        Map<String, Object> map = (Map<String, Object>) result;
+        int index = ((Number) map.get("index")).intValue();
+        return new Match(index, candidates.get(index), (List<WebElement>) map.get("elements"));
+    }
+
+    private List<Integer> order(Set<Integer> excluded) {
+        List<Integer> order = new ArrayList<>();
+        Integer winner = WINNERS.get(name);
+        if (winner != null && !excluded.contains(winner)) {
+            order.add(winner);
+        }
+        for (int i = 0; i < candidates.size(); i++) {
+            if (!excluded.contains(i) && !order.contains(i)) {
+                order.add(i);
+            }
+        }
+        return order;
+    }
+
+    /**
+     * The winning candidate and its visible matches
+     */
+    public static final class Match {
+        private final int index;
+        private final By locator;
+        private final List<WebElement> elements;
+
+        Match(int index, By locator, List<WebElement> elements) {
+            this.index = index;
+            this.locator = locator;
+            this.elements = elements;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public By getLocator() {
+            return locator;
+        }
+
+        public WebElement getElement() {
+            return elements.get(0);
+        }
+
+        public List<WebElement> getElements() {
+            return elements;
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package Project;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.testng.Reporter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the browser's network traffic over the Chrome DevTools Protocol
+ * so an action (clicking Next, uploading files) can be reported with the
+ * requests it caused: method, URL, status, TTFB, duration and transfer size.
+ *
+ * Only raw CDP method names are used (Network.enable and its events), so it
+ * works with whatever devtools version Selenium picks for the browser. One
+ * observer is kept per driver and survives the driver going back to the pool.
+ * On drivers without DevTools every call is a no-op.
+ *
+ * EventSource and WebSocket connections stay open by design and are not
+ * counted as in flight; any other request open for longer than
+ * aivoa.network.maxInFlightMs (a long poll, a lost loadingFinished) stops
+ * being counted so it cannot keep every later wait from settling.
+ *
+ * Requests are only kept while an action window that can report them is
+ * open, so a driver whose traffic is never reported (e.g. reused across
+ * data rows) does not collect requests for the whole suite.
+ *
+ * @author Test Automation Team
+ */
+public class NetworkObserver {
+
+    private static final TestLog log = TestLog.get(NetworkObserver.class);
+    private static final Json JSON = new Json();
+    private static final File TIMINGS_FILE = new File("target/network-timings.jsonl");
+    private static final Map<WebDriver, NetworkObserver> OBSERVERS = Collections.synchronizedMap(new WeakHashMap<>());
+    private static final NetworkObserver DISABLED = new NetworkObserver();
+
+    private final Map<String, RequestTiming> requests = new ConcurrentHashMap<>();
+    // Request id -> System.nanoTime() when it was sent
+    private final Map<String, Long> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final AtomicLong lastActivity = new AtomicLong(System.nanoTime());
+    // Sequence the open window starts after, -1 while no window is open
+    private volatile long openWindowFrom = -1;
+    private final boolean enabled;
+
+    private NetworkObserver() {
+        this.enabled = false;
+    }
+
+    private NetworkObserver(DevTools devTools) {
+        this.enabled = true;
+        devTools.createSessionIfThereIsNotOne();
+        devTools.send(new Command<Void>("Network.enable", new LinkedHashMap<>()));
+        devTools.addListener(event("Network.requestWillBeSent"), this::onRequest);
+        devTools.addListener(event("Network.responseReceived"), this::onResponse);
+        devTools.addListener(event("Network.loadingFinished"), this::onFinished);
+        devTools.addListener(event("Network.loadingFailed"), this::onFailed);
+    }
+
+    /**
+     * The observer for this driver, attached on first use.
+     * Disabled with aivoa.network=false or when the driver has no DevTools.
+     */
+    public static NetworkObserver of(WebDriver driver) {
+        if (!TestConfig.booleanValue("aivoa.network", true) || !(driver instanceof HasDevTools)) {
+            return DISABLED;
+        }
+        synchronized (OBSERVERS) {
+            NetworkObserver observer = OBSERVERS.get(driver);
+            if (observer == null) {
+                try {
+                    observer = new NetworkObserver(((HasDevTools) driver).getDevTools());
+                } catch (Exception e) {
+                    log.warn("⚠ Network capture unavailable: {}", e.getMessage());
+                    observer = DISABLED;
+                }
+                OBSERVERS.put(driver, observer);
+            }
+            return observer;
+        }
+    }
+
+    /**
+     * Start an action window; requests sent from now on belong to it.
+     * Finished requests of earlier windows are dropped.
+     */
+    public Window begin(String action) {
+        pruneInFlight();
+        requests.keySet().removeIf(id -> !inFlight.containsKey(id));
+        openWindowFrom = sequence.get();
+        return new Window(action, openWindowFrom);
+    }
+
+    /**
+     * Wait until no request has been in flight for aivoa.network.quietMs.
+     * Like the UI waits it never fails: returns false on timeout.
+     */
+    public boolean awaitSettled(String name, Duration timeout) {
+        if (!enabled) {
+            return true;
+        }
+        long quietNanos = TestConfig.longValue("aivoa.network.quietMs", 150) * 1_000_000;
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        boolean settled = false;
+        while (System.nanoTime() < deadline) {
+            pruneInFlight();
+            if (inFlight.isEmpty() && System.nanoTime() - lastActivity.get() >= quietNanos) {
+                settled = true;
+                break;
+            }
+            try {
+                Thread.sleep(25);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        StepSpans.record("wait.network." + name, System.nanoTime() - start, settled ? "ok" : "timeout");
+        if (!settled) {
+            log.stepWarn("⚠ {} request(s) still in flight after {}s: {}", inFlight.size(), timeout.getSeconds(), name);
+        }
+        return settled;
+    }
+
+    /**
+     * Requests of the window, logged and added to the TestNG report and to
+     * target/network-timings.jsonl
+     */
+    public List<RequestTiming> end(Window window) {
+        List<RequestTiming> timings = new ArrayList<>();
+        if (!enabled) {
+            return timings;
+        }
+        for (RequestTiming timing : requests.values()) {
+            if (timing.sequence > window.fromSequence) {
+                timings.add(timing);
+            }
+        }
+        timings.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+        // Reported; requests still in flight are dropped when they finish
+        openWindowFrom = -1;
+        requests.keySet().removeIf(id -> !inFlight.containsKey(id));
+
+        List<String> lines = new ArrayList<>();
+        lines.add(window.action + ": " + timings.size() + " request(s)");
+        for (RequestTiming timing : timings) {
+            lines.add("  " + timing);
+        }
+        log.stepLines(String.join("\n", lines));
+        for (String line : lines) {
+            Reporter.log("[network] " + line);
+        }
+        export(window.action, timings);
+        return timings;
+    }
+
+    private static synchronized void export(String action, List<RequestTiming> timings) {
+        if (timings.isEmpty()) {
+            return;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (RequestTiming timing : timings) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("test", TestContext.testId());
+            row.put("action", action);
+            row.putAll(timing.toMap());
+            JSON.newOutput(sb).setPrettyPrint(false).write(row);
+            sb.append('\n');
+        }
+        try {
+            TIMINGS_FILE.getParentFile().mkdirs();
+            Files.write(TIMINGS_FILE.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("⚠ Could not write {}: {}", TIMINGS_FILE.getPath(), e.getMessage());
+        }
+    }
+
+    private void onRequest(Map<String, Object> params) {
+        Map<String, Object> request = child(params, "request");
+        String url = String.valueOf(request.get("url"));
+        if (url.startsWith("data:") || url.startsWith("blob:")) {
+            return;
+        }
+        String id = String.valueOf(params.get("requestId"));
+        RequestTiming timing = new RequestTiming(sequence.incrementAndGet(),
+            String.valueOf(request.get("method")), url, String.valueOf(params.get("type")), number(params, "timestamp"));
+        if (openWindowFrom >= 0) {
+            requests.put(id, timing);
+        }
+        if (!"EventSource".equals(timing.type) && !"WebSocket".equals(timing.type)) {
+            inFlight.put(id, System.nanoTime());
+        }
+        lastActivity.set(System.nanoTime());
+    }
+
+    private void onResponse(Map<String, Object> params) {
+        RequestTiming timing = requests.get(String.valueOf(params.get("requestId")));
+        if (timing == null) {
+            return;
+        }
+        Map<String, Object> response = child(params, "response");
+        timing.status = (int) number(response, "status");
+        Map<String, Object> t = child(response, "timing");
+        if (t.containsKey("receiveHeadersEnd") && t.containsKey("sendStart")) {
+            timing.ttfbMs = number(t, "receiveHeadersEnd") - number(t, "sendStart");
+        }
+    }
+
+    private void onFinished(Map<String, Object> params) {
+        String id = String.valueOf(params.get("requestId"));
+        RequestTiming timing = requests.get(id);
+        if (timing != null) {
+            timing.bytes = (long) number(params, "encodedDataLength");
+            timing.durationMs = (number(params, "timestamp") - timing.startSeconds) * 1000;
+        }
+        settle(id);
+    }
+
+    private void onFailed(Map<String, Object> params) {
+        String id = String.valueOf(params.get("requestId"));
+        RequestTiming timing = requests.get(id);
+        if (timing != null) {
+            timing.error = String.valueOf(params.get("errorText"));
+            timing.durationMs = (number(params, "timestamp") - timing.startSeconds) * 1000;
+        }
+        settle(id);
+    }
+
+    /**
+     * Stop counting requests open for longer than aivoa.network.maxInFlightMs
+     */
+    private void pruneInFlight() {
+        long maxNanos = TestConfig.longValue("aivoa.network.maxInFlightMs", 30000) * 1_000_000;
+        long now = System.nanoTime();
+        inFlight.entrySet().removeIf(entry -> {
+            if (now - entry.getValue() < maxNanos) {
+                return false;
+            }
+            RequestTiming timing = requests.get(entry.getKey());
+            log.debug("Request open for over {} ms no longer counted as in flight: {}",
+                maxNanos / 1_000_000, timing == null ? entry.getKey() : timing.url);
+            return true;
+        });
+    }
+
+    private void settle(String id) {
+        inFlight.remove(id);
+        lastActivity.set(System.nanoTime());
+        // Keep a finished request only if the open window will report it
+        RequestTiming timing = requests.get(id);
+        long from = openWindowFrom;
+        if (timing != null && (from < 0 || timing.sequence <= from)) {
+            requests.remove(id);
+        }
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> child(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Map ? (Map<String, Object>) value : new LinkedHashMap<>();
+    }
+
+    private static double number(Map<String, Object> map, String key) {
+        Object value = map.get(key);
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    /**
+     * Marks where an action started in the observer's request sequence
+     */
+    public static final class Window {
+        private final String action;
+        private final long fromSequence;
+
+        Window(String action, long fromSequence) {
+            this.action = action;
+            this.fromSequence = fromSequence;
+        }
+    }
+
+    /**
+     * One request: status, TTFB and duration in ms, encoded bytes received.
+     * Fields are filled in as CDP events arrive; -1 means not known yet.
+     */
+    public static final class RequestTiming {
+        private final long sequence;
+        private final String method;
+        private final String url;
+        private final String type;
+        private final double startSeconds;
+        private volatile int status = -1;
+        private volatile double ttfbMs = -1;
+        private volatile double durationMs = -1;
+        private volatile long bytes = -1;
+        private volatile String error;
+
+        RequestTiming(long sequence, String method, String url, String type, double startSeconds) {
+            this.sequence = sequence;
+            this.method = method;
+            this.url = url;
+            this.type = type;
+            this.startSeconds = startSeconds;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public double getTtfbMs() {
+            return ttfbMs;
+        }
+
+        public double getDurationMs() {
+            return durationMs;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("method", method);
+            map.put("url", url);
+            map.put("type", type);
+            map.put("status", status);
+            map.put("ttfbMs", ttfbMs);
+            map.put("durationMs", durationMs);
+            map.put("bytes", bytes);
+            map.put("error", error);
+            return map;
+        }
+
+        @Override
+        public String toString() {
+            String outcome = error != null ? "FAILED " + error : String.valueOf(status);
+            return String.format("%-6s %s %s ttfb=%.0fms total=%.0fms %s [%s]",
+                method, outcome, url, ttfbMs, durationMs, UploadFixtures.formatSize(Math.max(0, bytes)), type);
+        }
+    }
+}
@@ -0,0 +1,281 @@
+package Project;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Front-end timings of the pages the suite already visits, checked against
+ * budgets. After a navigation it reads Navigation Timing, first and largest
+ * contentful paint, long tasks and Resource Timing; after an in-page action
+ * (opening the receipt modal, pressing Next) it reads what happened since
+ * the action started: time until the DOM settled, long tasks and resources.
+ *
+ * Samples are kept per page and metric as a time series in
+ * the baseline file (the last aivoa.perf.history samples). A metric
+ * breaches its budget when the p75 of the stored series plus this run's
+ * samples exceeds aivoa.perf.budget.[page.]metric. At the end of the run
+ * every metric whose p75 grew by more than aivoa.perf.tolerance over the
+ * stored series is reported as a regression.
+ *
+ * @author Test Automation Team
+ */
+public class PagePerformance {
+
+    private static final TestLog log = TestLog.get(PagePerformance.class);
+
+    /**
+     * Buffered observers give LCP and long-task entries that getEntriesByType
+     * does not expose. arguments[0] is the page time the action started at,
+     * or null for a navigation.
+     */
+    private static final String COLLECT_SCRIPT =
+        "var since = arguments[0];" +
+        "function observed(type) {" +
+        "  if (!window.PerformanceObserver || (PerformanceObserver.supportedEntryTypes || []).indexOf(type) < 0) { return []; }" +
+        "  var po = new PerformanceObserver(function () {});" +
+        "  po.observe({ type: type, buffered: true });" +
+        "  var records = po.takeRecords(); po.disconnect(); return records;" +
+        "}" +
+        "var from = since === null ? 0 : since, m = {};" +
+        "var tasks = observed('longtask').filter(function (t) { return t.startTime >= from; });" +
+        "var resources = performance.getEntriesByType('resource').filter(function (r) { return r.startTime >= from; });" +
+        "m.longTasks = tasks.length;" +
+        "m.totalBlockingTime = tasks.reduce(function (s, t) { return s + Math.max(0, t.duration - 50); }, 0);" +
+        "m.resources = resources.length;" +
+        "m.resourceKb = resources.reduce(function (s, r) { return s + (r.transferSize || 0); }, 0) / 1024;" +
+        "m.slowestResource = resources.reduce(function (s, r) { return Math.max(s, r.duration); }, 0);" +
+        "if (since === null) {" +
+        "  var nav = performance.getEntriesByType('navigation')[0];" +
+        "  if (nav) {" +
+        "    m.ttfb = nav.responseStart - nav.startTime;" +
+        "    m.domContentLoaded = nav.domContentLoadedEventEnd - nav.startTime;" +
+        "    m.load = nav.loadEventEnd > 0 ? nav.loadEventEnd - nav.startTime : null;" +
+        "  }" +
+        "  var fcp = performance.getEntriesByType('paint').filter(function (p) { return p.name === 'first-contentful-paint'; })[0];" +
+        "  var lcp = observed('largest-contentful-paint').pop();" +
+        "  m.fcp = fcp ? fcp.startTime : null;" +
+        "  m.lcp = lcp ? lcp.startTime : null;" +
+        "} else {" +
+        "  var probe = window.__aivoaWait;" +
+        "  m.settled = probe ? Math.max(0, probe.lastMutation - performance.timeOrigin - since) : performance.now() - since;" +
+        "}" +
+        "return m;";
+
+    private static final Map<String, Double> DEFAULT_BUDGETS = defaultBudgets();
+
+    private final File baselineFile;
+    private final int history;
+    private final double tolerance;
+    private final Json json = new Json();
+    private final Map<String, Map<String, List<Double>>> stored;
+    private final Map<String, Map<String, List<Double>>> current = new TreeMap<>();
+
+    public PagePerformance(File baselineFile) {
+        this.baselineFile = baselineFile;
+        this.history = Math.max(1, TestConfig.intValue("aivoa.perf.history", 50));
+        this.tolerance = TestConfig.doubleValue("aivoa.perf.tolerance", 0.25);
+        this.stored = load();
+    }
+
+    /**
+     * Collection is on unless aivoa.perf=false
+     */
+    public static boolean isEnabled() {
+        return TestConfig.booleanValue("aivoa.perf", true);
+    }
+
+    /**
+     * Page time to pass to afterAction(), taken just before the action
+     */
+    public static double mark(WebDriver driver) {
+        Object now = ((JavascriptExecutor) driver).executeScript("return performance.now();");
+        return now instanceof Number ? ((Number) now).doubleValue() : 0;
+    }
+
+    /**
+     * Record the current document's load metrics; returns the budget breaches
+     */
+    public List<String> afterNavigation(WebDriver driver, String page) {
+        return record(driver, page, null);
+    }
+
+    /**
+     * Record what happened since mark(); returns the budget breaches
+     */
+    public List<String> afterAction(WebDriver driver, String page, double since) {
+        return record(driver, page, since);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> record(WebDriver driver, String page, Double since) {
+        Map<String, Object> metrics;
+        try {
+            metrics = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(COLLECT_SCRIPT, since);
+        } catch (Exception e) {
+            log.stepWarn("⚠ Page timings unavailable for {}: {}", page, e.getMessage());
+            return Collections.emptyList();
+        }
+
+        List<String> breaches = new ArrayList<>();
+        List<String> parts = new ArrayList<>();
+        synchronized (this) {
+            for (Map.Entry<String, Object> entry : new TreeMap<>(metrics).entrySet()) {
+                if (!(entry.getValue() instanceof Number)) {
+                    continue;
+                }
+                String metric = entry.getKey();
+                double value = ((Number) entry.getValue()).doubleValue();
+                current.computeIfAbsent(page, k -> new TreeMap<>()).computeIfAbsent(metric, k -> new ArrayList<>()).add(value);
+                parts.add(String.format("%s=%.0f", metric, value));
+
+                Double budget = budget(page, metric);
+                if (budget != null) {
+                    double p75 = p75(series(page, metric));
+                    if (p75 > budget) {
+                        breaches.add(String.format("%s %s p75 %.0f ms > budget %.0f ms (this sample %.0f)", page, metric, p75, budget, value));
+                    }
+                }
+            }
+        }
+        log.step("⏱ {}: {}", page, String.join(" ", parts));
+        return breaches;
+    }
+
+    /**
+     * Write the series back (trimmed to the history size) and report
+     * metrics whose p75 in this run regressed against the stored series
+     */
+    public synchronized List<String> save() {
+        List<String> regressions = new ArrayList<>();
+        Map<String, Map<String, List<Double>>> merged = new TreeMap<>();
+        for (Map.Entry<String, Map<String, List<Double>>> page : stored.entrySet()) {
+            for (Map.Entry<String, List<Double>> metric : page.getValue().entrySet()) {
+                merged.computeIfAbsent(page.getKey(), k -> new TreeMap<>()).put(metric.getKey(), new ArrayList<>(metric.getValue()));
+            }
+        }
+        for (Map.Entry<String, Map<String, List<Double>>> page : current.entrySet()) {
+            for (Map.Entry<String, List<Double>> metric : page.getValue().entrySet()) {
+                List<Double> before = stored.getOrDefault(page.getKey(), Collections.emptyMap()).get(metric.getKey());
+                if (before != null && !before.isEmpty() && budget(page.getKey(), metric.getKey()) != null) {
+                    double was = p75(before);
+                    double now = p75(metric.getValue());
+                    if (now > was * (1 + tolerance) + 1) {
+                        regressions.add(String.format("%s %s p75 %.0f ms vs %.0f ms baseline (+%.0f%%)",
+                            page.getKey(), metric.getKey(), now, was, (now - was) * 100 / Math.max(1, was)));
+                    }
+                }
+                List<Double> series = merged.computeIfAbsent(page.getKey(), k -> new TreeMap<>())
+                    .computeIfAbsent(metric.getKey(), k -> new ArrayList<>());
+                series.addAll(metric.getValue());
+                if (series.size() > history) {
+                    series.subList(0, series.size() - history).clear();
+                }
+            }
+        }
+        if (!current.isEmpty()) {
+            try {
+                File parent = baselineFile.getAbsoluteFile().getParentFile();
+                if (parent != null) {
+                    parent.mkdirs();
+                }
+                Files.write(baselineFile.toPath(), json.toJson(merged).getBytes(StandardCharsets.UTF_8));
+            } catch (Exception e) {
+                log.warn("⚠ Could not write {}: {}", baselineFile.getPath(), e.getMessage());
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * p75 per page and metric for this run, one line each
+     */
+    public synchronized String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Map<String, List<Double>>> page : current.entrySet()) {
+            for (Map.Entry<String, List<Double>> metric : page.getValue().entrySet()) {
+                Double budget = budget(page.getKey(), metric.getKey());
+                sb.append(String.format("%-16s %-18s n=%-3d p75=%8.0f%s%n", page.getKey(), metric.getKey(),
+                    metric.getValue().size(), p75(metric.getValue()), budget == null ? "" : String.format("  budget %.0f", budget)));
+            }
+        }
+        return sb.toString();
+    }
+
+    private List<Double> series(String page, String metric) {
+        List<Double> all = new ArrayList<>(stored.getOrDefault(page, Collections.emptyMap()).getOrDefault(metric, Collections.emptyList()));
+        all.addAll(current.get(page).get(metric));
+        return all;
+    }
+
+    /**
+     * aivoa.perf.budget.page.metric, then aivoa.perf.budget.metric, then the default; null means no budget
+     */
+    private static Double budget(String page, String metric) {
+        String value = TestConfig.stringValue("aivoa.perf.budget." + page + "." + metric,
+            TestConfig.stringValue("aivoa.perf.budget." + metric, null));
+        if (value != null) {
+            try {
+                return Double.parseDouble(value);
+            } catch (NumberFormatException e) {
+                log.warn("⚠ Invalid budget for {} {}: '{}', using the default", page, metric, value);
+            }
+        }
+        return DEFAULT_BUDGETS.get(metric);
+    }
+
+    /**
+     * Budgets in ms for the metrics that are gated; counts and sizes are only recorded
+     */
+    private static Map<String, Double> defaultBudgets() {
+        Map<String, Double> budgets = new LinkedHashMap<>();
+        budgets.put("ttfb", 800.0);
+        budgets.put("fcp", 1800.0);
+        budgets.put("lcp", 2500.0);
+        budgets.put("domContentLoaded", 2500.0);
+        budgets.put("load", 4000.0);
+        budgets.put("totalBlockingTime", 300.0);
+        budgets.put("settled", 2000.0);
+        return budgets;
+    }
+
+    private static double p75(List<Double> values) {
+        List<Double> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        int index = (int) Math.ceil(0.75 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Map<String, List<Double>>> load() {
+        Map<String, Map<String, List<Double>>> series = new TreeMap<>();
+        if (!baselineFile.exists()) {
+            return series;
+        }
+        try {
+            String content = new String(Files.readAllBytes(baselineFile.toPath()), StandardCharsets.UTF_8);
+            Map<String, Map<String, List<Number>>> saved = json.toType(content, Map.class);
+            for (Map.Entry<String, Map<String, List<Number>>> page : saved.entrySet()) {
+                for (Map.Entry<String, List<Number>> metric : page.getValue().entrySet()) {
+                    List<Double> values = new ArrayList<>();
+                    for (Number n : metric.getValue()) {
+                        values.add(n.doubleValue());
+                    }
+                    series.computeIfAbsent(page.getKey(), k -> new TreeMap<>()).put(metric.getKey(), values);
+                }
+            }
+        } catch (Exception e) {
+            log.warn("⚠ Ignoring unreadable performance baseline: {}", e.getMessage());
+        }
+        return series;
+    }
+}
@@ -0,0 +1,30 @@
+package Project;
+
+import org.testng.IAlterSuiteListener;
+import org.testng.xml.XmlSuite;
+import java.util.List;
+
+/**
+ * Applies the parallel mode and thread count from TestConfig to every suite,
+ * so CI can tune concurrency with -Daivoa.parallel and -Daivoa.threads
+ * without editing testng.xml.
+ *
+ * @author Test Automation Team
+ */
+public class ParallelSuiteListener implements IAlterSuiteListener {
+
+    private static final TestLog log = TestLog.get(ParallelSuiteListener.class);
+
+    @Override
+    public void alter(List<XmlSuite> suites) {
+        XmlSuite.ParallelMode mode = XmlSuite.ParallelMode.getValidParallel(TestConfig.parallelMode());
+        int threads = TestConfig.threadCount();
+
+        for (XmlSuite suite : suites) {
+            suite.setParallel(mode);
+            suite.setThreadCount(threads);
+            suite.setDataProviderThreadCount(threads);
+            log.info("✓ Suite '{}': parallel={}, threads={}", suite.getName(), mode, threads);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package Project;
+
+import org.testng.IInvokedMethod;
+import org.testng.IInvokedMethodListener;
+import org.testng.ITestResult;
+
+/**
+ * Checks a test's page performance budgets right after the test method
+ * returns, before TestNG reports the result, so that with
+ * aivoa.perf.enforce=true a breach fails the test in Surefire, the
+ * reports and ScreenshotFailureListener alike.
+ *
+ * @author Test Automation Team
+ */
+public class PerformanceBudgetListener implements IInvokedMethodListener {
+
+    @Override
+    public void afterInvocation(IInvokedMethod method, ITestResult result) {
+        if (method.isTestMethod() && result.getInstance() instanceof AdditionalExternalPOTests) {
+            ((AdditionalExternalPOTests) result.getInstance()).checkBudgets(result);
+        }
+    }
+}
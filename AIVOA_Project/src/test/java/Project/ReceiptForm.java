@@ -0,0 +1,113 @@
+package Project;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-page operations on the open receipt form, so a browser that already
+ * shows the form can be reused for the next data row instead of being
+ * signed in and navigated again, and so a whole form can be filled in one
+ * round trip instead of several per field.
+ *
+ * @author Test Automation Team
+ */
+public final class ReceiptForm {
+
+    private static final String IS_OPEN_SCRIPT = Locators.FIND_FUNCTION +
+        "return find(arguments[0]).some(visible);";
+
+    /**
+     * Empties every matching field through the native value setter and fires
+     * input/change so framework-managed state is cleared too
+     */
+    private static final String CLEAR_SCRIPT = Locators.FIND_FUNCTION +
+        "var count = 0;" +
+        "arguments[0].forEach(function (l) {" +
+        "  find(l).forEach(function (e) {" +
+        "    var proto = e instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype : HTMLInputElement.prototype;" +
+        "    Object.getOwnPropertyDescriptor(proto, 'value').set.call(e, '');" +
+        "    e.dispatchEvent(new Event('input', { bubbles: true }));" +
+        "    e.dispatchEvent(new Event('change', { bubbles: true }));" +
+        "    count++;" +
+        "  });" +
+        "});" +
+        "return count;";
+
+    /**
+     * Sets every field through the native value setter with focus, input,
+     * change and blur in the order a user would cause them, then reads all
+     * values back. A value a controlled input rejected reads back differently.
+     */
+    private static final String FILL_SCRIPT = Locators.FIND_FUNCTION +
+        "var targets = arguments[0].map(function (f) {" +
+        "  var all = find(f.locator);" +
+        "  return all.filter(visible)[0] || all[0] || null;" +
+        "});" +
+        "arguments[0].forEach(function (f, i) {" +
+        "  var e = targets[i];" +
+        "  if (!e) { return; }" +
+        "  var proto = e instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype" +
+        "            : e instanceof HTMLSelectElement ? HTMLSelectElement.prototype : HTMLInputElement.prototype;" +
+        "  e.focus();" +
+        "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(e, f.value);" +
+        "  e.dispatchEvent(new Event('input', { bubbles: true }));" +
+        "  e.dispatchEvent(new Event('change', { bubbles: true }));" +
+        "  e.blur();" +
+        "});" +
+        "return targets.map(function (e) { return e ? e.value : null; });";
+
+    private ReceiptForm() {
+    }
+
+    /**
+     * True if the field identifying the form is visible on the page
+     */
+    public static boolean isOpen(WebDriver driver, By marker) {
+        try {
+            return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(
+                IS_OPEN_SCRIPT, Locators.toScriptLocator(marker)));
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Clear all given fields in one round trip, returning how many were cleared
+     */
+    public static int clear(WebDriver driver, List<By> fields) {
+        List<Map<String, Object>> locators = new ArrayList<>();
+        for (By field : fields) {
+            locators.add(Locators.toScriptLocator(field));
+        }
+        Object count = ((JavascriptExecutor) driver).executeScript(CLEAR_SCRIPT, locators);
+        return count instanceof Number ? ((Number) count).intValue() : 0;
+    }
+
+    /**
+     * Set all given fields in one round trip and return what each one holds
+     * afterwards, in the same order (null if the field was not found)
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<By, String> fill(WebDriver driver, Map<By, String> values) {
+        List<Map<String, Object>> fields = new ArrayList<>();
+        for (Map.Entry<By, String> entry : values.entrySet()) {
+            Map<String, Object> field = new LinkedHashMap<>();
+            field.put("locator", Locators.toScriptLocator(entry.getKey()));
+            field.put("value", entry.getValue());
+            fields.add(field);
+        }
+        List<Object> readBack = (List<Object>) ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, fields);
+        Map<By, String> actual = new LinkedHashMap<>();
+        int i = 0;
+        for (By locator : values.keySet()) {
+            Object value = readBack.get(i++);
+            actual.put(locator, value == null ? null : String.valueOf(value));
+        }
+        return actual;
+    }
+}
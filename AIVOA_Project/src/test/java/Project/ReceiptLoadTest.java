@@ -0,0 +1,411 @@
+package Project;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load generation mode for the receipt flow (mvn test -Pload). Runs
+ * aivoa.load.browsers browser users, who go through login, the Inbound
+ * page, the External PO form, an upload and Next, next to
+ * aivoa.load.httpUsers HTTP-only users, who sign in over the login API,
+ * load the Inbound page and post an upload. Users are started evenly over
+ * aivoa.load.rampUpSec and keep looping, with aivoa.load.thinkMs between
+ * iterations, until aivoa.load.durationSec after the ramp-up has ended.
+ *
+ * Every step goes into a LatencyHistogram; errors are counted per step and
+ * against the number of active users when the iteration started. The
+ * report goes to the log, the TestNG report and target/load-report.json,
+ * and the test fails when the error rate exceeds aivoa.load.maxErrorRate.
+ *
+ * Users run on virtual threads when the JVM has them (Java 21+), otherwise
+ * on one platform thread each.
+ *
+ * @author Test Automation Team
+ */
+public class ReceiptLoadTest {
+
+    private static final TestLog log = TestLog.get(ReceiptLoadTest.class);
+
+    private static final File REPORT_FILE = new File("target/load-report.json");
+
+    private final AdditionalExternalPOTests suite = new AdditionalExternalPOTests();
+    private final Map<String, LatencyHistogram> latencies = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<String, AtomicLong> stepErrors = new ConcurrentHashMap<>();
+    private final Map<Integer, long[]> byConcurrency = new ConcurrentHashMap<>();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicLong iterations = new AtomicLong();
+    private final AtomicLong failedIterations = new AtomicLong();
+    private int browsers;
+    private int httpUsers;
+    private long rampUpMs;
+    private long durationMs;
+    private long thinkMs;
+    private String uploadPath;
+    private String submitPath;
+    private double maxErrorRate;
+    private File uploadFile;
+    private HttpClient client;
+    private ApiAuth apiAuth;
+
+    @BeforeClass
+    public void setUpLoad() {
+        browsers = Math.max(0, TestConfig.intValue("aivoa.load.browsers", TestConfig.poolSize()));
+        httpUsers = Math.max(0, TestConfig.intValue("aivoa.load.httpUsers", 10));
+        rampUpMs = TestConfig.longValue("aivoa.load.rampUpSec", 30) * 1000;
+        durationMs = TestConfig.longValue("aivoa.load.durationSec", 60) * 1000;
+        thinkMs = TestConfig.longValue("aivoa.load.thinkMs", 500);
+        uploadPath = TestConfig.stringValue("aivoa.load.uploadPath", "/api/uploads");
+        submitPath = TestConfig.stringValue("aivoa.load.submitPath", null);
+        maxErrorRate = TestConfig.doubleValue("aivoa.load.maxErrorRate", 0.05);
+        // One browser per browser user: a smaller pool would park the extra users until the run ends
+        int poolSize = Math.max(browsers, TestConfig.poolSize());
+        if (poolSize > TestConfig.poolSize()) {
+            log.info("✓ Browser pool sized to {} for {} browser user(s)", poolSize, browsers);
+        }
+
+        new File("test-files").mkdirs();
+        uploadFile = UploadFixtures.get("load-upload.pdf",
+            UploadFixtures.parseSize(TestConfig.stringValue("aivoa.load.uploadSize", "64KB")));
+        suite.setupSuite(poolSize);
+        client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(10))
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        apiAuth = new ApiAuth(AdditionalExternalPOTests.getBaseUrl(),
+            AdditionalExternalPOTests.USERNAME, AdditionalExternalPOTests.PASSWORD);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownLoad() {
+        suite.tearDownSuite();
+    }
+
+    @Test(description = "Receipt flow under concurrent browser and HTTP users")
+    public void receiptFlowUnderLoad() throws Exception {
+        int users = browsers + httpUsers;
+        Assert.assertTrue(users > 0, "No users configured (aivoa.load.browsers and aivoa.load.httpUsers are 0)");
+
+        log.banner("LOAD: " + browsers + " browser + " + httpUsers + " HTTP users",
+            "Ramp-up " + rampUpMs / 1000 + "s, steady " + durationMs / 1000 + "s, think " + thinkMs + " ms");
+        ExecutorService executor = newUserExecutor();
+        List<Future<?>> futures = new ArrayList<>();
+        long start = System.nanoTime();
+        long end = start + (rampUpMs + durationMs) * 1_000_000;
+        try {
+            for (int i = 0; i < users; i++) {
+                // Spread the browser users evenly among the HTTP users so both ramp up together
+                boolean browser = (long) (i + 1) * browsers / users > (long) i * browsers / users;
+                long startAt = start + rampUpMs * 1_000_000 * i / users;
+                int id = i + 1;
+                futures.add(executor.submit(() -> runUser(id, browser, startAt, end)));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double errorRate = report(System.nanoTime() - start);
+        Assert.assertTrue(iterations.get() > 0, "No iteration completed during the load run");
+        Assert.assertTrue(errorRate <= maxErrorRate,
+            String.format("Error rate %.2f%% exceeds aivoa.load.maxErrorRate %.2f%%", errorRate * 100, maxErrorRate * 100));
+    }
+
+    private void runUser(int id, boolean browser, long startAt, long end) {
+        String userId = (browser ? "load-browser-" : "load-http-") + id;
+        if (!sleepNanos(startAt - System.nanoTime())) {
+            return;
+        }
+        if (browser) {
+            TestContext.setTestId(userId);
+            try {
+                suite.borrowDriver();
+            } catch (Exception e) {
+                log.warn("⚠ {} got no browser: {}", userId, e.getMessage());
+                stepError("browser.acquire");
+                // A user that never started counts against the error rate
+                iterations.incrementAndGet();
+                failedIterations.incrementAndGet();
+                return;
+            }
+        }
+
+        active.incrementAndGet();
+        try {
+            for (int iteration = 1; System.nanoTime() < end; iteration++) {
+                int concurrency = active.get();
+                TestContext.setTestId(userId + "-" + iteration);
+                boolean ok = browser ? browserIteration(id, iteration) : httpIteration(id, iteration);
+                iterations.incrementAndGet();
+                if (!ok) {
+                    failedIterations.incrementAndGet();
+                }
+                long[] counts = byConcurrency.computeIfAbsent(concurrency, k -> new long[2]);
+                synchronized (counts) {
+                    counts[0]++;
+                    counts[1] += ok ? 0 : 1;
+                }
+                if (!sleepNanos(Math.min(thinkMs * 1_000_000, end - System.nanoTime()))) {
+                    break;
+                }
+            }
+        } finally {
+            active.decrementAndGet();
+            if (browser) {
+                suite.tearDown();
+            }
+        }
+    }
+
+    /**
+     * One receipt session in the browser; stops at the first failing step
+     */
+    private boolean browserIteration(int user, int iteration) {
+        WebDriver driver = suite.getDriver();
+        return step("browser.login", () -> {
+                driver.manage().deleteAllCookies();
+                suite.authenticate();
+            })
+            && step("browser.inbound", suite::navigateToInboundPage)
+            && step("browser.new-receipt", suite::clickNewUnplannedReceipt)
+            && step("browser.external-po", () -> {
+                if (!suite.selectExternalPOReference()) {
+                    throw new IllegalStateException("External PO Reference option not found");
+                }
+            })
+            && step("browser.fill", () -> suite.fillForm(formValues(user, iteration)))
+            // Upload before Next: a valid Next leaves the form
+            && step("browser.upload", () -> {
+                driver.findElement(AdditionalExternalPOTests.FILE_INPUT).sendKeys(uploadFile.getAbsolutePath());
+                List<UploadVerifier.UploadedFile> files = new UploadVerifier(driver, AdditionalExternalPOTests.FILE_INPUT)
+                    .waitForFiles(1, Duration.ofSeconds(30));
+                if (!UploadVerifier.containsFile(files, uploadFile.getName())) {
+                    throw new IllegalStateException("Uploaded file not listed");
+                }
+            })
+            && step("browser.next", () -> {
+                driver.findElement(AdditionalExternalPOTests.NEXT_BUTTON).click();
+                new WebDriverWait(driver, Duration.ofSeconds(15), Duration.ofMillis(100)).until(d ->
+                    !ReceiptForm.isOpen(d, AdditionalExternalPOTests.EXTERNAL_PO_NUMBER) || !ValidationErrors.collect(d).isEmpty());
+                List<ValidationErrors.FieldError> errors = ValidationErrors.collect(driver);
+                if (!errors.isEmpty()) {
+                    throw new IllegalStateException("Validation errors after Next: " + errors);
+                }
+            });
+    }
+
+    /**
+     * Login API, Inbound page and an upload, without a browser
+     */
+    private boolean httpIteration(int user, int iteration) {
+        String baseUrl = AdditionalExternalPOTests.getBaseUrl();
+        ApiAuth.Session[] session = new ApiAuth.Session[1];
+        return step("http.login", () -> session[0] = apiAuth.fetchSession())
+            && step("http.inbound", () -> send(session[0], HttpRequest.newBuilder(URI.create(baseUrl + AdditionalExternalPOTests.INBOUND_PATH))
+                .GET()))
+            && step("http.upload", () -> send(session[0], HttpRequest.newBuilder(URI.create(baseUrl + uploadPath))
+                .header("Content-Type", "application/pdf")
+                .header("X-File-Name", URLEncoder.encode(uploadFile.getName(), StandardCharsets.UTF_8))
+                .POST(HttpRequest.BodyPublishers.ofFile(uploadFile.toPath()))))
+            && (submitPath == null || step("http.submit", () -> send(session[0], HttpRequest.newBuilder(URI.create(baseUrl + submitPath))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(new Json().toJson(formValues(user, iteration)), StandardCharsets.UTF_8)))));
+    }
+
+    private void send(ApiAuth.Session session, HttpRequest.Builder builder) throws IOException, InterruptedException {
+        List<String> cookies = new ArrayList<>();
+        for (Cookie cookie : session.getCookies()) {
+            cookies.add(cookie.getName() + "=" + cookie.getValue());
+        }
+        if (!cookies.isEmpty()) {
+            builder.header("Cookie", String.join("; ", cookies));
+        }
+        if (session.getToken() != null) {
+            builder.header("Authorization", "Bearer " + session.getToken());
+        }
+        HttpRequest request = builder.timeout(Duration.ofSeconds(30)).build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status / 100 != 2) {
+            throw new IOException(request.method() + " " + request.uri().getPath() + " returned HTTP " + status);
+        }
+    }
+
+    private static Map<String, String> formValues(int user, int iteration) {
+        Map<String, String> values = new LinkedHashMap<>();
+        values.put("External PO Number", String.format("LOAD-%03d-%05d", user, iteration));
+        values.put("Supplier Name", "Load Supplier " + user);
+        values.put("BOL/AWR Number", String.format("BOL-%03d-%05d", user, iteration));
+        values.put("Delivery Date", "12/11/2025");
+        return values;
+    }
+
+    /**
+     * Time one step into its histogram; failures are counted, not thrown
+     */
+    private boolean step(String name, LoadStep action) {
+        long start = System.nanoTime();
+        boolean ok;
+        try {
+            action.run();
+            ok = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ok = false;
+        } catch (Throwable e) {
+            log.debug("{} failed for {}: {}", name, TestContext.testId(), e.getMessage());
+            ok = false;
+        }
+        long elapsed = System.nanoTime() - start;
+        latencies.computeIfAbsent(name, k -> new LatencyHistogram()).recordNanos(elapsed);
+        if (!ok) {
+            stepError(name);
+        }
+        return ok;
+    }
+
+    private void stepError(String name) {
+        stepErrors.computeIfAbsent(name, k -> new AtomicLong()).incrementAndGet();
+    }
+
+    /**
+     * Log and write the histograms and error rates; returns the overall error rate
+     */
+    private double report(long elapsedNanos) {
+        long total = iterations.get();
+        double errorRate = total == 0 ? 0 : (double) failedIterations.get() / total;
+        Map<String, LatencyHistogram> steps;
+        synchronized (latencies) {
+            steps = new LinkedHashMap<>(latencies);
+        }
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%d iteration(s) in %d s, %.1f/s, %d failed (%.2f%%)", total, elapsedNanos / 1_000_000_000L,
+            total * 1e9 / Math.max(1, elapsedNanos), failedIterations.get(), errorRate * 100));
+        lines.add("Latency per step:");
+        Map<String, Object> stepReport = new LinkedHashMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : steps.entrySet()) {
+            long errors = errorCount(entry.getKey());
+            lines.add(String.format("  %-20s %s errors=%d", entry.getKey(), entry.getValue().summary(), errors));
+            Map<String, Object> row = new LinkedHashMap<>(entry.getValue().toMap());
+            row.put("errors", errors);
+            stepReport.put(entry.getKey(), row);
+        }
+        lines.add("Error rate by active users:");
+        List<Map<String, Object>> concurrencyReport = new ArrayList<>();
+        for (Map.Entry<Integer, long[]> entry : new TreeMap<>(byConcurrency).entrySet()) {
+            long[] counts = entry.getValue();
+            double rate = (double) counts[1] / Math.max(1, counts[0]);
+            lines.add(String.format("  users=%-4d iterations=%-6d errors=%-5d rate=%.2f%%", entry.getKey(), counts[0], counts[1], rate * 100));
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("activeUsers", entry.getKey());
+            row.put("iterations", counts[0]);
+            row.put("errors", counts[1]);
+            row.put("errorRate", rate);
+            concurrencyReport.add(row);
+        }
+
+        log.open("LOAD REPORT");
+        log.stepLines(String.join("\n", lines));
+        log.close();
+        for (String line : lines) {
+            Reporter.log("[load] " + line);
+        }
+
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("browsers", browsers);
+        config.put("httpUsers", httpUsers);
+        config.put("rampUpSec", rampUpMs / 1000);
+        config.put("durationSec", durationMs / 1000);
+        config.put("thinkMs", thinkMs);
+        config.put("uploadBytes", uploadFile.length());
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config);
+        report.put("iterations", total);
+        report.put("failedIterations", failedIterations.get());
+        report.put("errorRate", errorRate);
+        report.put("steps", stepReport);
+        report.put("byConcurrency", concurrencyReport);
+        try {
+            REPORT_FILE.getParentFile().mkdirs();
+            Files.write(REPORT_FILE.toPath(), new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+            log.info("✓ Load report written: {}", REPORT_FILE.getPath());
+        } catch (Exception e) {
+            log.warn("⚠ Could not write load report: {}", e.getMessage());
+        }
+        return errorRate;
+    }
+
+    private long errorCount(String step) {
+        AtomicLong errors = stepErrors.get(step);
+        return errors == null ? 0 : errors.get();
+    }
+
+    /**
+     * Virtual threads when the JVM has them; the project compiles for Java 17,
+     * so the factory is looked up at runtime
+     */
+    private static ExecutorService newUserExecutor() {
+        if (TestConfig.booleanValue("aivoa.load.virtualThreads", true)) {
+            try {
+                ExecutorService executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                log.info("✓ Users run on virtual threads");
+                return executor;
+            } catch (ReflectiveOperationException e) {
+                log.info("✓ No virtual threads on Java {}, users run on platform threads", Runtime.version().feature());
+            }
+        }
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, "load-user-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static boolean sleepNanos(long nanos) {
+        if (nanos <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private interface LoadStep {
+        void run() throws Exception;
+    }
+}
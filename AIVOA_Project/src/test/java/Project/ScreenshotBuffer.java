@@ -0,0 +1,100 @@
+package Project;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the last step screenshots of each test in memory and only sends them
+ * to the ScreenshotService when the test fails or is skipped. Each test has
+ * a ring buffer capped by frame count and by bytes; the oldest frames are
+ * evicted first. Set aivoa.screenshots.mode=always to write every frame.
+ *
+ * @author Test Automation Team
+ */
+public class ScreenshotBuffer {
+
+    private static volatile ScreenshotBuffer active;
+
+    private final ScreenshotService service;
+    private final boolean captureAll;
+    private final int maxFrames;
+    private final long maxBytes;
+    private final Map<String, Ring> rings = new ConcurrentHashMap<>();
+
+    public ScreenshotBuffer(ScreenshotService service) {
+        this.service = service;
+        this.captureAll = "always".equalsIgnoreCase(TestConfig.stringValue("aivoa.screenshots.mode", "onFailure"));
+        this.maxFrames = Math.max(1, TestConfig.intValue("aivoa.screenshots.bufferFrames", 10));
+        this.maxBytes = TestConfig.longValue("aivoa.screenshots.bufferKb", 8 * 1024) * 1024;
+    }
+
+    /**
+     * Make this buffer the one used by ScreenshotFailureListener
+     */
+    public static void activate(ScreenshotBuffer buffer) {
+        active = buffer;
+    }
+
+    public static ScreenshotBuffer active() {
+        return active;
+    }
+
+    public boolean isCaptureAll() {
+        return captureAll;
+    }
+
+    /**
+     * Record a step frame for the test. Returns true if it was written right away.
+     */
+    public boolean capture(String testId, String relativePath, byte[] png) {
+        if (captureAll) {
+            return service.submit(relativePath, png);
+        }
+        rings.computeIfAbsent(testId, k -> new Ring()).add(relativePath, png);
+        return false;
+    }
+
+    /**
+     * Write the buffered frames of a failed or skipped test
+     */
+    public int flush(String testId) {
+        Ring ring = rings.remove(testId);
+        return ring == null ? 0 : ring.flushTo(service);
+    }
+
+    /**
+     * Drop the buffered frames of a passed test
+     */
+    public void discard(String testId) {
+        rings.remove(testId);
+    }
+
+    private final class Ring {
+        private final Deque<String> paths = new ArrayDeque<>();
+        private final Deque<byte[]> frames = new ArrayDeque<>();
+        private long bytes;
+
+        synchronized void add(String path, byte[] png) {
+            paths.addLast(path);
+            frames.addLast(png);
+            bytes += png.length;
+            while (frames.size() > maxFrames || (bytes > maxBytes && frames.size() > 1)) {
+                paths.removeFirst();
+                bytes -= frames.removeFirst().length;
+            }
+        }
+
+        synchronized int flushTo(ScreenshotService target) {
+            int count = 0;
+            while (!frames.isEmpty()) {
+                if (target.submit(paths.removeFirst(), frames.removeFirst())) {
+                    count++;
+                }
+            }
+            bytes = 0;
+            return count;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package Project;
+
+import org.testng.ITestListener;
+import org.testng.ITestResult;
+
+/**
+ * Writes a test's buffered screenshots to disk when it fails or is skipped,
+ * and drops them when it passes.
+ *
+ * @author Test Automation Team
+ */
+public class ScreenshotFailureListener implements ITestListener {
+
+    private static final TestLog log = TestLog.get(ScreenshotFailureListener.class);
+
+    /**
+     * Result attribute holding the test id used as the screenshot folder
+     */
+    public static final String TEST_ID_ATTRIBUTE = "aivoa.testId";
+
+    @Override
+    public void onTestFailure(ITestResult result) {
+        flush(result);
+    }
+
+    @Override
+    public void onTestFailedButWithinSuccessPercentage(ITestResult result) {
+        flush(result);
+    }
+
+    @Override
+    public void onTestSkipped(ITestResult result) {
+        flush(result);
+    }
+
+    @Override
+    public void onTestSuccess(ITestResult result) {
+        ScreenshotBuffer buffer = ScreenshotBuffer.active();
+        Object testId = result.getAttribute(TEST_ID_ATTRIBUTE);
+        if (buffer != null && testId != null) {
+            buffer.discard(testId.toString());
+        }
+    }
+
+    private void flush(ITestResult result) {
+        ScreenshotBuffer buffer = ScreenshotBuffer.active();
+        Object testId = result.getAttribute(TEST_ID_ATTRIBUTE);
+        if (buffer != null && testId != null) {
+            int written = buffer.flush(testId.toString());
+            if (written > 0) {
+                log.info("📸 Saved {} buffered screenshot(s) for {}", written, testId);
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package Project;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Writes screenshots on a background thread so tests never block on disk I/O.
+ * Frames go through a bounded queue: when it is full the test waits briefly
+ * (backpressure) and then the frame is dropped and counted. A frame identical
+ * to the previous one in the same folder is skipped. Frames can optionally be
+ * downscaled or re-encoded before writing.
+ *
+ * @author Test Automation Team
+ */
+public class ScreenshotService {
+
+    private static final TestLog log = TestLog.get(ScreenshotService.class);
+
+    private static final byte[] POISON = new byte[0];
+
+    private final File rootDir;
+    private final BlockingQueue<Frame> queue;
+    private final long offerTimeoutMs;
+    private final double scale;
+    private final boolean recompress;
+    private final Thread writer;
+    private volatile boolean accepting = true;
+
+    // Last frame hash per folder, for consecutive-duplicate detection
+    private final Map<String, String> lastHash = new ConcurrentHashMap<>();
+
+    // Metrics
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger enqueued = new AtomicInteger();
+    private final AtomicInteger written = new AtomicInteger();
+    private final AtomicInteger duplicates = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private final AtomicInteger maxDepth = new AtomicInteger();
+    private final AtomicLong enqueueNanos = new AtomicLong();
+    private final AtomicLong writeNanos = new AtomicLong();
+    private final AtomicLong bytesWritten = new AtomicLong();
+
+    public ScreenshotService(File rootDir) {
+        this.rootDir = rootDir;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, TestConfig.intValue("aivoa.screenshots.queue", 32)));
+        this.offerTimeoutMs = TestConfig.longValue("aivoa.screenshots.offerMs", 2000);
+        this.scale = TestConfig.doubleValue("aivoa.screenshots.scale", 1.0);
+        this.recompress = TestConfig.booleanValue("aivoa.screenshots.recompress", false);
+
+        this.writer = new Thread(this::drain, "screenshot-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Queue a PNG for writing to rootDir/relativePath.
+     * Returns false if the frame was a duplicate or had to be dropped.
+     */
+    public boolean submit(String relativePath, byte[] png) {
+        if (!accepting) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        submitted.incrementAndGet();
+
+        String folder = relativePath.contains("/") ? relativePath.substring(0, relativePath.lastIndexOf('/')) : "";
+        String hash = sha256(png);
+        if (hash.equals(lastHash.get(folder))) {
+            duplicates.incrementAndGet();
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            boolean queued = queue.offer(new Frame(relativePath, png), offerTimeoutMs, TimeUnit.MILLISECONDS);
+            if (!queued) {
+                dropped.incrementAndGet();
+                return false;
+            }
+            // Only a queued frame counts as the folder's last one; a dropped one may come again
+            lastHash.put(folder, hash);
+            enqueued.incrementAndGet();
+            maxDepth.accumulateAndGet(queue.size(), Math::max);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            dropped.incrementAndGet();
+            return false;
+        } finally {
+            enqueueNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Wait up to timeoutMs for every frame queued so far to be written (or to fail).
+     * Returns false on timeout or when the writer has stopped.
+     */
+    public boolean awaitWritten(long timeoutMs) {
+        int target = enqueued.get();
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMs);
+        while (written.get() + failed.get() < target) {
+            if (!writer.isAlive() || System.nanoTime() >= deadline) {
+                return false;
+            }
+            LockSupport.parkNanos(50_000);
+        }
+        return true;
+    }
+
+    /**
+     * Stop accepting frames, wait up to timeoutMs in total for the queue to
+     * drain and print metrics. A full queue behind a stuck writer cannot
+     * block the shutdown: the end marker is only offered within the timeout.
+     */
+    public void shutdown(long timeoutMs) {
+        accepting = false;
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        try {
+            if (queue.offer(new Frame(null, POISON), timeoutMs, TimeUnit.MILLISECONDS)) {
+                writer.join(Math.max(1, deadline - System.currentTimeMillis()));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            log.warn("⚠ Screenshot writer did not finish, {} frame(s) lost", queue.size());
+        }
+        log.info("✓ Screenshot service closed: {}", metrics());
+    }
+
+    public String metrics() {
+        int n = written.get();
+        int s = submitted.get();
+        return "submitted=" + s +
+               ", written=" + n +
+               ", duplicates=" + duplicates.get() +
+               ", dropped=" + dropped.get() +
+               ", failed=" + failed.get() +
+               ", maxQueueDepth=" + maxDepth.get() +
+               ", avgEnqueueMs=" + (s == 0 ? 0 : enqueueNanos.get() / s / 1_000_000) +
+               ", avgWriteMs=" + (n == 0 ? 0 : writeNanos.get() / n / 1_000_000) +
+               ", kbWritten=" + bytesWritten.get() / 1024;
+    }
+
+    private void drain() {
+        while (true) {
+            Frame frame;
+            try {
+                frame = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (frame.png == POISON) {
+                return;
+            }
+
+            long start = System.nanoTime();
+            try {
+                byte[] data = process(frame.png);
+                File file = new File(rootDir, frame.path);
+                file.getParentFile().mkdirs();
+                Files.write(file.toPath(), data);
+                written.incrementAndGet();
+                bytesWritten.addAndGet(data.length);
+            } catch (Exception e) {
+                failed.incrementAndGet();
+                log.warn("⚠ Screenshot write failed for {}: {}", frame.path, e.getMessage());
+            } finally {
+                writeNanos.addAndGet(System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * Optional downscale and PNG re-encode
+     */
+    private byte[] process(byte[] png) throws Exception {
+        if (scale >= 1.0 && !recompress) {
+            return png;
+        }
+        BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+        if (image == null) {
+            return png;
+        }
+        if (scale < 1.0) {
+            int width = Math.max(1, (int) (image.getWidth() * scale));
+            int height = Math.max(1, (int) (image.getHeight() * scale));
+            BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = scaled.createGraphics();
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.drawImage(image, 0, 0, width, height, null);
+            g.dispose();
+            image = scaled;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        byte[] encoded = out.toByteArray();
+        // Keep the original if re-encoding did not help
+        return scale >= 1.0 && encoded.length >= png.length ? png : encoded;
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (Exception e) {
+            return String.valueOf(Arrays.hashCode(data));
+        }
+    }
+
+    private static final class Frame {
+        final String path;
+        final byte[] png;
+
+        Frame(String path, byte[] png) {
+            this.path = path;
+            this.png = png;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package Project;
+
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Logs in once and shares the authenticated session with every new browser.
+ * Cookies, localStorage and sessionStorage are saved to a JSON file and
+ * loaded into fresh drivers, so tests can open app pages already signed in.
+ * A fresh login is only performed when the saved session has expired.
+ *
+ * @author Test Automation Team
+ */
+public class SessionBootstrap {
+
+    private static final TestLog log = TestLog.get(SessionBootstrap.class);
+
+    private static final String READ_STORAGE_SCRIPT =
+        "var s = window[arguments[0]], o = {};" +
+        "for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); }" +
+        "return o;";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+        "var s = window[arguments[0]], o = arguments[1];" +
+        "for (var k in o) { s.setItem(k, o[k]); }";
+
+    private final String baseUrl;
+    private final String loginPath;
+    private final File stateFile;
+    private final Json json = new Json();
+    private Map<String, Object> state;
+
+    public SessionBootstrap(String baseUrl, String loginPath, File stateFile) {
+        this.baseUrl = baseUrl;
+        this.loginPath = loginPath;
+        this.stateFile = stateFile;
+    }
+
+    /**
+     * Returns true if a saved session is available and none of its cookies has expired
+     */
+    public synchronized boolean hasValidState() {
+        Map<String, Object> saved = loadState();
+        return saved != null && !isExpired(saved);
+    }
+
+    /**
+     * Runs the login action on the given driver and saves the resulting session
+     */
+    public synchronized void login(WebDriver driver, Consumer<WebDriver> loginAction) {
+        loginAction.accept(driver);
+        save(driver);
+    }
+
+    /**
+     * Captures cookies and web storage from the driver and writes them to the state file
+     */
+    public synchronized void save(WebDriver driver) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            Map<String, Object> c = new LinkedHashMap<>();
+            c.put("name", cookie.getName());
+            c.put("value", cookie.getValue());
+            c.put("path", cookie.getPath());
+            c.put("secure", cookie.isSecure());
+            c.put("httpOnly", cookie.isHttpOnly());
+            if (cookie.getExpiry() != null) {
+                c.put("expiry", cookie.getExpiry().getTime());
+            }
+            cookies.add(c);
+        }
+
+        Map<String, Object> captured = new LinkedHashMap<>();
+        captured.put("savedAt", System.currentTimeMillis());
+        captured.put("cookies", cookies);
+        captured.put("localStorage", js.executeScript(READ_STORAGE_SCRIPT, "localStorage"));
+        captured.put("sessionStorage", js.executeScript(READ_STORAGE_SCRIPT, "sessionStorage"));
+
+        try {
+            File parent = stateFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists()) {
+                parent.mkdirs();
+            }
+            Files.write(stateFile.toPath(), json.toJson(captured).getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.stepWarn("⚠ Could not save session state: {}", e.getMessage());
+        }
+        state = captured;
+    }
+
+    /**
+     * Loads the saved session into the driver. The browser is pointed at a
+     * lightweight same-origin URL first so cookies and storage can be set
+     * without booting the whole application.
+     * Returns false if there is no usable saved session.
+     */
+    @SuppressWarnings("unchecked")
+    public boolean restore(WebDriver driver) {
+        Map<String, Object> saved;
+        synchronized (this) {
+            saved = loadState();
+        }
+        if (saved == null || isExpired(saved)) {
+            return false;
+        }
+
+        try {
+            driver.get(baseUrl + "/favicon.ico");
+
+            List<Map<String, Object>> cookies = (List<Map<String, Object>>) saved.get("cookies");
+            if (cookies != null) {
+                for (Map<String, Object> c : cookies) {
+                    Cookie.Builder builder = new Cookie.Builder((String) c.get("name"), (String) c.get("value"))
+                        .path((String) c.get("path"))
+                        .isSecure(Boolean.TRUE.equals(c.get("secure")))
+                        .isHttpOnly(Boolean.TRUE.equals(c.get("httpOnly")));
+                    if (c.get("expiry") != null) {
+                        builder.expiresOn(new Date(((Number) c.get("expiry")).longValue()));
+                    }
+                    driver.manage().addCookie(builder.build());
+                }
+            }
+
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            if (saved.get("localStorage") != null) {
+                js.executeScript(WRITE_STORAGE_SCRIPT, "localStorage", saved.get("localStorage"));
+            }
+            if (saved.get("sessionStorage") != null) {
+                js.executeScript(WRITE_STORAGE_SCRIPT, "sessionStorage", saved.get("sessionStorage"));
+            }
+            return true;
+
+        } catch (Exception e) {
+            log.stepWarn("⚠ Could not restore session state: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Returns true if the application bounced the browser back to the login page
+     */
+    public boolean isLoginRedirect(String currentUrl) {
+        return currentUrl != null && currentUrl.contains(loginPath);
+    }
+
+    /**
+     * Drops the saved session so the next caller logs in again
+     */
+    public synchronized void invalidate() {
+        state = null;
+        if (stateFile.exists()) {
+            stateFile.delete();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> loadState() {
+        if (state == null && stateFile.exists()) {
+            try {
+                String content = new String(Files.readAllBytes(stateFile.toPath()), StandardCharsets.UTF_8);
+                state = json.toType(content, Map.class);
+            } catch (Exception e) {
+                log.stepWarn("⚠ Ignoring unreadable session state: {}", e.getMessage());
+            }
+        }
+        return state;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean isExpired(Map<String, Object> saved) {
+        List<Map<String, Object>> cookies = (List<Map<String, Object>>) saved.get("cookies");
+        if (cookies == null) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        for (Map<String, Object> c : cookies) {
+            Object expiry = c.get("expiry");
+            if (expiry != null && ((Number) expiry).longValue() <= now) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,42 @@
+package Project;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import jdk.jfr.Timestamp;
+
+/**
+ * JFR event emitted for every step span, visible in JDK Mission Control
+ * when the suite runs with -XX:StartFlightRecording.
+ * Steps timed elsewhere and recorded afterwards (waits, probes) are emitted
+ * when they end, so their own event duration is near zero; the step's real
+ * start and duration are in stepStart and stepDuration.
+ *
+ * @author Test Automation Team
+ */
+@Name("aivoa.Step")
+@Label("AIVOA Test Step")
+@Category({"AIVOA", "Test Automation"})
+@Description("A timed step of the External PO receipt flow")
+public class StepEvent extends Event {
+
+    @Label("Step")
+    String step;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Test Id")
+    String testId;
+
+    @Label("Step Start")
+    @Timestamp(Timestamp.MILLISECONDS_SINCE_EPOCH)
+    long stepStart;
+
+    @Label("Step Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    long stepDuration;
+}
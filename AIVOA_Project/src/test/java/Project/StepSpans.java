@@ -0,0 +1,167 @@
+package Project;
+
+import org.openqa.selenium.json.Json;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Named, nanosecond-timed spans around the steps of the receipt flow.
+ * Every span is recorded with its outcome, appended to a JSON lines file
+ * and emitted as a JFR StepEvent. summary() prints per-step percentiles.
+ *
+ * Every duration is kept until the JVM exits, so long load runs switch the
+ * in-memory and file record off with aivoa.spans=false; JFR events are
+ * still emitted.
+ *
+ * @author Test Automation Team
+ */
+public final class StepSpans {
+
+    private static final File SPANS_FILE = new File(TestConfig.stringValue("aivoa.spans.file", "target/spans.jsonl"));
+    private static final Json JSON = new Json();
+    private static final Map<String, List<Long>> DURATIONS = new ConcurrentHashMap<>();
+    private static final Map<String, Integer> FAILURES = new ConcurrentHashMap<>();
+    private static final boolean RECORDING = TestConfig.booleanValue("aivoa.spans", true);
+    private static BufferedWriter writer;
+    private static boolean truncated;
+
+    private StepSpans() {
+    }
+
+    /**
+     * Time a step. Exceptions and assertion failures are recorded as outcome "error" and rethrown.
+     */
+    public static void run(String name, Runnable step) {
+        call(name, () -> {
+            step.run();
+            return null;
+        });
+    }
+
+    /**
+     * Time a step that returns a value. A Boolean.FALSE result is recorded as outcome "failed".
+     */
+    public static <T> T call(String name, Supplier<T> step) {
+        StepEvent event = new StepEvent();
+        event.begin();
+        long start = System.nanoTime();
+        String outcome = "error";
+        try {
+            T result = step.get();
+            outcome = Boolean.FALSE.equals(result) ? "failed" : "ok";
+            return result;
+        } finally {
+            record(name, System.nanoTime() - start, outcome, event);
+        }
+    }
+
+    /**
+     * Record a step timed elsewhere, e.g. by a wait helper
+     */
+    public static void record(String name, long nanos, String outcome) {
+        StepEvent event = new StepEvent();
+        event.begin();
+        record(name, nanos, outcome, event);
+    }
+
+    /**
+     * Per-step count, error count and p50/p90/p99/max in milliseconds
+     */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, List<Long>> entry : new TreeMap<>(DURATIONS).entrySet()) {
+            List<Long> sorted;
+            synchronized (entry.getValue()) {
+                sorted = new ArrayList<>(entry.getValue());
+            }
+            Collections.sort(sorted);
+            sb.append(String.format("%-28s n=%-4d err=%-3d p50=%6.1f p90=%6.1f p99=%6.1f max=%6.1f ms%n",
+                entry.getKey(), sorted.size(), FAILURES.getOrDefault(entry.getKey(), 0),
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99),
+                sorted.get(sorted.size() - 1) / 1e6));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Flush and close the JSON lines export
+     */
+    public static synchronized void close() {
+        if (writer != null) {
+            try {
+                writer.close();
+            } catch (Exception e) {
+                // Nothing left to do
+            }
+            writer = null;
+        }
+    }
+
+    private static void record(String name, long nanos, String outcome, StepEvent event) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.step = name;
+            event.outcome = outcome;
+            event.testId = TestContext.testId();
+            event.stepStart = System.currentTimeMillis() - nanos / 1_000_000;
+            event.stepDuration = nanos;
+            event.commit();
+        }
+        if (!RECORDING) {
+            return;
+        }
+
+        List<Long> durations = DURATIONS.computeIfAbsent(name, k -> new ArrayList<>());
+        synchronized (durations) {
+            durations.add(nanos);
+        }
+        if (!"ok".equals(outcome)) {
+            FAILURES.merge(name, 1, Integer::sum);
+        }
+
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("ts", System.currentTimeMillis());
+        line.put("step", name);
+        line.put("nanos", nanos);
+        line.put("outcome", outcome);
+        line.put("testId", TestContext.testId());
+        line.put("thread", Thread.currentThread().getName());
+        export(JSON.toJson(line).replaceAll("\\s*\\n\\s*", " "));
+    }
+
+    private static synchronized void export(String jsonLine) {
+        try {
+            if (writer == null) {
+                File parent = SPANS_FILE.getAbsoluteFile().getParentFile();
+                if (parent != null) {
+                    parent.mkdirs();
+                }
+                // Truncate once per JVM; a record after close() appends to this run's spans
+                writer = truncated
+                    ? Files.newBufferedWriter(SPANS_FILE.toPath(), StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                    : Files.newBufferedWriter(SPANS_FILE.toPath(), StandardCharsets.UTF_8);
+                truncated = true;
+            }
+            writer.write(jsonLine);
+            writer.newLine();
+        } catch (Exception e) {
+            // Timing export must never break a test
+        }
+    }
+
+    private static double percentile(List<Long> sorted, int p) {
+        int index = (int) Math.ceil(p / 100.0 * sorted.size()) - 1;
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1))) / 1e6;
+    }
+}
@@ -0,0 +1,305 @@
+package Project;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.json.Json;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process stand-in for the AIVOA web app, so the suite can run offline.
+ * Serves fixtures of the login page, the inbound page with the New Unplanned
+ * Receipt modal, the External PO form with its validation and the file
+ * upload widget from src/test/resources/stub. Login, through the form or
+ * POST /api/auth/login, issues a session cookie and app pages redirect to
+ * /login without one, like the real app.
+ *
+ * Every response can be delayed by aivoa.stub.latencyMs (plus up to
+ * aivoa.stub.jitterMs) to mimic a remote host.
+ *
+ * @author Test Automation Team
+ */
+public class StubServer {
+
+    private static final TestLog log = TestLog.get(StubServer.class);
+
+    private static final Json JSON = new Json();
+    private static final String SESSION_COOKIE = "aivoa_session";
+    private static final String[] FIXTURES = { "login.html", "inbound.html", "app.css", "app.js" };
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final long latencyMs;
+    private final long jitterMs;
+    private final Map<String, byte[]> fixtures = new HashMap<>();
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    // Metrics
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger uploads = new AtomicInteger();
+    private final AtomicLong uploadBytes = new AtomicLong();
+
+    private StubServer(int port, long latencyMs, long jitterMs) throws IOException {
+        this.latencyMs = Math.max(0, latencyMs);
+        this.jitterMs = Math.max(0, jitterMs);
+        for (String name : FIXTURES) {
+            fixtures.put(name, readFixture(name));
+        }
+
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 64);
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "stub-http");
+            t.setDaemon(true);
+            return t;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Start a stub on the given port (0 picks a free one)
+     */
+    public static StubServer start(int port, long latencyMs, long jitterMs) {
+        try {
+            StubServer stub = new StubServer(port, latencyMs, jitterMs);
+            stub.server.start();
+            log.info("✓ Stub server listening on {} (latency {}±{} ms)", stub.baseUrl(), latencyMs, jitterMs);
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start stub server: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Start a stub configured from aivoa.stub.port, aivoa.stub.latencyMs and aivoa.stub.jitterMs
+     */
+    public static StubServer fromConfig() {
+        return start(TestConfig.intValue("aivoa.stub.port", 0),
+                     TestConfig.longValue("aivoa.stub.latencyMs", 0),
+                     TestConfig.longValue("aivoa.stub.jitterMs", 0));
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+        log.info("✓ Stub server stopped: {}", metrics());
+    }
+
+    public String metrics() {
+        return "requests=" + requests.get() +
+               ", sessions=" + sessions.size() +
+               ", uploads=" + uploads.get() +
+               ", kbUploaded=" + uploadBytes.get() / 1024;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        try {
+            delay();
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath();
+
+            if (path.equals("/favicon.ico")) {
+                send(exchange, 200, "image/x-icon", new byte[0]);
+            } else if (path.equals("/login") && method.equals("POST")) {
+                login(exchange);
+            } else if (path.equals("/api/auth/login") && method.equals("POST")) {
+                apiLogin(exchange);
+            } else if (path.equals("/login")) {
+                send(exchange, 200, "text/html; charset=utf-8", fixtures.get("login.html"));
+            } else if (path.equals("/logout")) {
+                sessions.remove(sessionOf(exchange));
+                redirect(exchange, "/login");
+            } else if (path.startsWith("/static/") && fixtures.containsKey(path.substring(8))) {
+                String name = path.substring(8);
+                send(exchange, 200, contentType(name), fixtures.get(name));
+            } else if (!isSignedIn(exchange)) {
+                if (path.startsWith("/api/")) {
+                    send(exchange, 401, "application/json", "{\"error\":\"unauthorized\"}".getBytes(StandardCharsets.UTF_8));
+                } else {
+                    redirect(exchange, "/login");
+                }
+            } else if (path.equals("/")) {
+                redirect(exchange, "/inventory/inbound");
+            } else if (path.startsWith("/inventory/inbound")) {
+                send(exchange, 200, "text/html; charset=utf-8", fixtures.get("inbound.html"));
+            } else if (path.equals("/api/uploads") && method.equals("POST")) {
+                upload(exchange);
+            } else {
+                send(exchange, 404, "text/plain", "Not found".getBytes(StandardCharsets.UTF_8));
+            }
+        } catch (Exception e) {
+            log.warn("⚠ Stub request failed: {}", e.getMessage());
+            send(exchange, 500, "text/plain", String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Form login: any email with a non-empty password is accepted
+     */
+    private void login(HttpExchange exchange) throws IOException {
+        Map<String, String> form = parseForm(new String(readBody(exchange.getRequestBody()), StandardCharsets.UTF_8));
+        String email = form.getOrDefault("email", "");
+        String password = form.getOrDefault("password", "");
+        if (!email.contains("@") || password.isEmpty()) {
+            redirect(exchange, "/login?error=1");
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        sessions.add(token);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + token + "; Path=/; HttpOnly");
+        redirect(exchange, "/inventory/inbound");
+    }
+
+    /**
+     * JSON login: {email, password} in, {token} and the session cookie out
+     */
+    @SuppressWarnings("unchecked")
+    private void apiLogin(HttpExchange exchange) throws IOException {
+        String body = new String(readBody(exchange.getRequestBody()), StandardCharsets.UTF_8);
+        Map<String, Object> credentials = body.trim().startsWith("{") ? JSON.toType(body, Map.class) : new HashMap<>();
+        String email = String.valueOf(credentials.getOrDefault("email", ""));
+        String password = String.valueOf(credentials.getOrDefault("password", ""));
+        if (!email.contains("@") || password.isEmpty()) {
+            send(exchange, 401, "application/json", "{\"error\":\"invalid credentials\"}".getBytes(StandardCharsets.UTF_8));
+            return;
+        }
+        String token = UUID.randomUUID().toString();
+        sessions.add(token);
+        exchange.getResponseHeaders().add("Set-Cookie", SESSION_COOKIE + "=" + token + "; Path=/; HttpOnly");
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", token);
+        result.put("email", email);
+        send(exchange, 200, "application/json", JSON.toJson(result).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Accepts a raw file body named by the X-File-Name header
+     */
+    private void upload(HttpExchange exchange) throws IOException {
+        long size = 0;
+        byte[] buffer = new byte[64 * 1024];
+        try (InputStream in = exchange.getRequestBody()) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                size += n;
+            }
+        }
+        uploads.incrementAndGet();
+        uploadBytes.addAndGet(size);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("name", URLDecoder.decode(String.valueOf(exchange.getRequestHeaders().getFirst("X-File-Name")), StandardCharsets.UTF_8));
+        result.put("size", size);
+        result.put("status", "uploaded");
+        send(exchange, 201, "application/json", JSON.toJson(result).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private boolean isSignedIn(HttpExchange exchange) {
+        String token = sessionOf(exchange);
+        return token != null && sessions.contains(token);
+    }
+
+    private static String sessionOf(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Cookie");
+        if (header == null) {
+            return null;
+        }
+        for (String part : header.split(";")) {
+            String[] kv = part.trim().split("=", 2);
+            if (kv.length == 2 && kv[0].equals(SESSION_COOKIE)) {
+                return kv[1];
+            }
+        }
+        return null;
+    }
+
+    private void delay() {
+        long ms = latencyMs + (jitterMs > 0 ? ThreadLocalRandom.current().nextLong(jitterMs + 1) : 0);
+        if (ms > 0) {
+            try {
+                Thread.sleep(ms);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void redirect(HttpExchange exchange, String location) throws IOException {
+        exchange.getResponseHeaders().set("Location", location);
+        exchange.sendResponseHeaders(302, -1);
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.getResponseHeaders().set("Cache-Control", "no-store");
+        exchange.sendResponseHeaders(status, body.length == 0 ? -1 : body.length);
+        if (body.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static Map<String, String> parseForm(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] kv = pair.split("=", 2);
+            if (kv.length == 2) {
+                form.put(URLDecoder.decode(kv[0], StandardCharsets.UTF_8), URLDecoder.decode(kv[1], StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static String contentType(String name) {
+        if (name.endsWith(".css")) {
+            return "text/css; charset=utf-8";
+        }
+        if (name.endsWith(".js")) {
+            return "application/javascript; charset=utf-8";
+        }
+        return "text/html; charset=utf-8";
+    }
+
+    private static byte[] readFixture(String name) throws IOException {
+        try (InputStream in = StubServer.class.getResourceAsStream("/stub/" + name)) {
+            if (in == null) {
+                throw new IOException("Missing stub fixture: stub/" + name);
+            }
+            return readBody(in);
+        }
+    }
+
+    private static byte[] readBody(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int n;
+        while ((n = in.read(buffer)) > 0) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,110 @@
+package Project;
+
+import java.util.Locale;
+
+/**
+ * Suite configuration read from -D system properties, falling back to
+ * environment variables (aivoa.pool.size -> AIVOA_POOL_SIZE) and then defaults.
+ * Warnings go straight to stderr because TestLog is itself configured from here.
+ *
+ * @author Test Automation Team
+ */
+public final class TestConfig {
+
+    private TestConfig() {
+    }
+
+    /**
+     * TestNG parallel mode: methods, classes or none
+     */
+    public static String parallelMode() {
+        return stringValue("aivoa.parallel", "methods");
+    }
+
+    /**
+     * Number of TestNG worker threads, one per core by default
+     */
+    public static int threadCount() {
+        return Math.max(1, intValue("aivoa.threads", Runtime.getRuntime().availableProcessors()));
+    }
+
+    /**
+     * Maximum number of browsers kept by the driver pool, one per worker thread by default
+     */
+    public static int poolSize() {
+        return Math.max(1, intValue("aivoa.pool.size", threadCount()));
+    }
+
+    /**
+     * Number of browsers started before the first test asks for one
+     */
+    public static int poolWarmSize() {
+        return Math.min(poolSize(), Math.max(0, intValue("aivoa.pool.warm", 1)));
+    }
+
+    /**
+     * Run against the embedded StubServer instead of a real environment (aivoa.env=stub)
+     */
+    public static boolean useStub() {
+        return "stub".equalsIgnoreCase(stringValue("aivoa.env", "remote"));
+    }
+
+    /**
+     * Base URL of the real AIVOA environment
+     */
+    public static String remoteBaseUrl() {
+        return stringValue("aivoa.baseUrl", "http://216.48.184.249:5274");
+    }
+
+    public static String stringValue(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.trim().isEmpty()) {
+            value = System.getenv(key.toUpperCase().replace('.', '_'));
+        }
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+
+    public static int intValue(String key, int defaultValue) {
+        try {
+            return Integer.parseInt(stringValue(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("⚠ Invalid number for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static long longValue(String key, long defaultValue) {
+        try {
+            return Long.parseLong(stringValue(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("⚠ Invalid number for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    public static double doubleValue(String key, double defaultValue) {
+        try {
+            return Double.parseDouble(stringValue(key, String.valueOf(defaultValue)));
+        } catch (NumberFormatException e) {
+            System.err.println("⚠ Invalid number for " + key + ", using " + defaultValue);
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Enum constant named by the value, case-insensitive; the default if the name is unknown
+     */
+    public static <E extends Enum<E>> E enumValue(String key, E defaultValue) {
+        String value = stringValue(key, defaultValue.name());
+        try {
+            return Enum.valueOf(defaultValue.getDeclaringClass(), value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            System.err.println("⚠ Invalid value '" + value + "' for " + key + ", using " + defaultValue.name().toLowerCase(Locale.ROOT));
+            return defaultValue;
+        }
+    }
+
+    public static boolean booleanValue(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(stringValue(key, String.valueOf(defaultValue)));
+    }
+}
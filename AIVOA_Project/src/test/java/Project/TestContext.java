@@ -0,0 +1,34 @@
+package Project;
+
+/**
+ * Per-thread identity of the running test, shared by screenshots, spans and logs.
+ *
+ * @author Test Automation Team
+ */
+public final class TestContext {
+
+    private static final String SUITE = "suite";
+    private static final ThreadLocal<String> TEST_ID = ThreadLocal.withInitial(() -> SUITE);
+
+    private TestContext() {
+    }
+
+    public static String testId() {
+        return TEST_ID.get();
+    }
+
+    public static void setTestId(String testId) {
+        TEST_ID.set(testId);
+    }
+
+    /**
+     * True outside of a test method, e.g. in @BeforeSuite
+     */
+    public static boolean isSuiteLevel() {
+        return SUITE.equals(TEST_ID.get());
+    }
+
+    public static void clear() {
+        TEST_ID.remove();
+    }
+}
@@ -0,0 +1,177 @@
+package Project;
+
+import java.util.function.Supplier;
+
+/**
+ * Structured logging facade for the suite. Every call becomes an event tagged
+ * with the current test id, thread and level, and is handed to the
+ * asynchronous appender, so test threads never block on stdout.
+ * Messages use {} placeholders (or a Supplier) and are only built when the
+ * level is enabled.
+ *
+ * Box methods (banner, section, open, step, close) keep the familiar
+ * box-drawing console output when aivoa.log.format=boxes.
+ *
+ * @author Test Automation Team
+ */
+public final class TestLog {
+
+    public enum Level { DEBUG, INFO, WARN, ERROR }
+
+    /**
+     * Shape of an event, used by the box renderer
+     */
+    public enum Kind { LINE, STEP, OPEN, CLOSE, BANNER, SECTION }
+
+    private static final Level THRESHOLD = TestConfig.enumValue("aivoa.log.level", Level.INFO);
+
+    private final String logger;
+
+    private TestLog(String logger) {
+        this.logger = logger;
+    }
+
+    public static TestLog get(Class<?> type) {
+        return new TestLog(type.getSimpleName());
+    }
+
+    public boolean isEnabled(Level level) {
+        return level.compareTo(THRESHOLD) >= 0;
+    }
+
+    public void debug(String pattern, Object... args) {
+        log(Level.DEBUG, Kind.LINE, pattern, args);
+    }
+
+    public void debug(Supplier<String> message) {
+        if (isEnabled(Level.DEBUG)) {
+            emit(Level.DEBUG, Kind.LINE, message.get());
+        }
+    }
+
+    public void info(String pattern, Object... args) {
+        log(Level.INFO, Kind.LINE, pattern, args);
+    }
+
+    public void warn(String pattern, Object... args) {
+        log(Level.WARN, Kind.LINE, pattern, args);
+    }
+
+    public void error(String pattern, Object... args) {
+        log(Level.ERROR, Kind.LINE, pattern, args);
+    }
+
+    /**
+     * A line inside the current box
+     */
+    public void step(String pattern, Object... args) {
+        log(Level.INFO, Kind.STEP, pattern, args);
+    }
+
+    public void step(Supplier<String> message) {
+        if (isEnabled(Level.INFO)) {
+            emit(Level.INFO, Kind.STEP, message.get());
+        }
+    }
+
+    public void stepWarn(String pattern, Object... args) {
+        log(Level.WARN, Kind.STEP, pattern, args);
+    }
+
+    public void stepError(String pattern, Object... args) {
+        log(Level.ERROR, Kind.STEP, pattern, args);
+    }
+
+    /**
+     * Every line of a multi-line text as box steps
+     */
+    public void stepLines(String text) {
+        if (isEnabled(Level.INFO) && text != null) {
+            for (String line : text.split("\n")) {
+                if (!line.isEmpty()) {
+                    emit(Level.INFO, Kind.STEP, line);
+                }
+            }
+        }
+    }
+
+    /**
+     * Opens a titled box: ┌─ TITLE ───┐
+     */
+    public void open(String title) {
+        log(Level.INFO, Kind.OPEN, title);
+    }
+
+    /**
+     * Closes the current box: └───┘
+     */
+    public void close() {
+        log(Level.INFO, Kind.CLOSE, "");
+    }
+
+    /**
+     * Double-line banner, one line per argument
+     */
+    public void banner(String... lines) {
+        if (isEnabled(Level.INFO)) {
+            emit(Level.INFO, Kind.BANNER, String.join("\n", lines));
+        }
+    }
+
+    /**
+     * Single-line box around a heading
+     */
+    public void section(String title) {
+        log(Level.INFO, Kind.SECTION, title);
+    }
+
+    private void log(Level level, Kind kind, String pattern, Object... args) {
+        if (isEnabled(level)) {
+            emit(level, kind, args.length == 0 ? pattern : format(pattern, args));
+        }
+    }
+
+    private void emit(Level level, Kind kind, String message) {
+        AsyncLogAppender.instance().append(new Event(
+            System.currentTimeMillis(), level, kind, logger,
+            TestContext.testId(), Thread.currentThread().getName(), message));
+    }
+
+    /**
+     * Replaces each {} with the next argument
+     */
+    static String format(String pattern, Object... args) {
+        StringBuilder sb = new StringBuilder(pattern.length() + 32);
+        int argIndex = 0;
+        int from = 0;
+        int at;
+        while ((at = pattern.indexOf("{}", from)) >= 0 && argIndex < args.length) {
+            sb.append(pattern, from, at).append(args[argIndex++]);
+            from = at + 2;
+        }
+        return sb.append(pattern.substring(from)).toString();
+    }
+
+    /**
+     * Immutable log event
+     */
+    public static final class Event {
+        final long timestamp;
+        final Level level;
+        final Kind kind;
+        final String logger;
+        final String testId;
+        final String thread;
+        final String message;
+
+        Event(long timestamp, Level level, Kind kind, String logger, String testId, String thread, String message) {
+            this.timestamp = timestamp;
+            this.level = level;
+            this.kind = kind;
+            this.logger = logger;
+            this.testId = testId;
+            this.thread = thread;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package Project;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * A named UI state a test starts from (e.g. "External PO form open, empty")
+ * and the cheapest way to get a browser into it. Strategies are tried in
+ * order, configurable with aivoa.checkpoint.strategies:
+ *
+ *   reuse     the page already shows the state; it is reset in place
+ *   deepLink  sign in and open aivoa.checkpoint.[name].deepLink directly
+ *   storage   sign in, open the URL the state was last reached at and put
+ *             back the local/session storage captured there
+ *   prelude   the full UI path (always tried last)
+ *
+ * A deep link or storage restore that does not show the state the first time
+ * it is tried is not tried again in this run, so apps without support for
+ * them pay for the attempt only once.
+ *
+ * @author Test Automation Team
+ */
+public class UiCheckpoint {
+
+    private static final TestLog log = TestLog.get(UiCheckpoint.class);
+
+    private static final String READ_STORAGE_SCRIPT =
+        "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { o[s.key(i)] = s.getItem(s.key(i)); } return o; }" +
+        "return { url: location.href, localStorage: dump(window.localStorage), sessionStorage: dump(window.sessionStorage) };";
+
+    private static final String WRITE_STORAGE_SCRIPT =
+        "var store = window[arguments[0]], items = arguments[1] || {};" +
+        "Object.keys(items).forEach(function (k) { store.setItem(k, items[k]); });";
+
+    public enum Strategy { REUSE, DEEP_LINK, STORAGE, PRELUDE }
+
+    private final String name;
+    private final Predicate<WebDriver> present;
+    private final Predicate<WebDriver> reset;
+    private final Consumer<WebDriver> signIn;
+    private final Consumer<WebDriver> prelude;
+    private final String deepLink;
+    private final Duration appearTimeout;
+    private final List<Strategy> strategies = new ArrayList<>();
+    private final Map<Strategy, Boolean> supported = new ConcurrentHashMap<>();
+    private final Map<Strategy, AtomicInteger> counts = new ConcurrentHashMap<>();
+    private final Map<Strategy, AtomicLong> nanos = new ConcurrentHashMap<>();
+    private volatile Map<String, Object> snapshot;
+
+    /**
+     * @param present true when the page shows the state
+     * @param reset   puts a present state back to its initial values; false if it cannot be used
+     * @param signIn  gives the browser a signed-in session without navigating the app
+     * @param prelude reaches the state through the UI from any page
+     */
+    public UiCheckpoint(String name, String baseUrl, Predicate<WebDriver> present, Predicate<WebDriver> reset,
+                        Consumer<WebDriver> signIn, Consumer<WebDriver> prelude) {
+        this.name = name;
+        this.present = present;
+        this.reset = reset;
+        this.signIn = signIn;
+        this.prelude = prelude;
+        String link = TestConfig.stringValue("aivoa.checkpoint." + name + ".deepLink", null);
+        this.deepLink = link == null || link.startsWith("http") ? link : baseUrl + link;
+        this.appearTimeout = Duration.ofMillis(TestConfig.longValue("aivoa.checkpoint.timeoutMs", 3000));
+        for (String s : TestConfig.stringValue("aivoa.checkpoint.strategies", "reuse,deepLink,storage,prelude").split(",")) {
+            Strategy strategy = Strategy.valueOf(s.trim().replaceAll("([a-z])([A-Z])", "$1_$2").toUpperCase(Locale.ROOT));
+            if (strategy != Strategy.PRELUDE && (strategy != Strategy.DEEP_LINK || deepLink != null)) {
+                strategies.add(strategy);
+            }
+        }
+        strategies.add(Strategy.PRELUDE);
+    }
+
+    /**
+     * Bring the browser into the state with the first strategy that works
+     */
+    public Restore restore(WebDriver driver) {
+        long start = System.nanoTime();
+        Strategy used = null;
+        for (Strategy strategy : strategies) {
+            // Storage can only be restored once the prelude has captured it
+            if (Boolean.FALSE.equals(supported.get(strategy)) || (strategy == Strategy.STORAGE && snapshot == null)) {
+                continue;
+            }
+            if (attempt(strategy, driver)) {
+                supported.put(strategy, true);
+                used = strategy;
+                break;
+            }
+            if ((strategy == Strategy.DEEP_LINK || strategy == Strategy.STORAGE) && supported.putIfAbsent(strategy, false) == null) {
+                log.info("✗ Checkpoint '{}' cannot be restored by {}, not trying it again", name, strategy);
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        counts.computeIfAbsent(used, k -> new AtomicInteger()).incrementAndGet();
+        nanos.computeIfAbsent(used, k -> new AtomicLong()).addAndGet(elapsed);
+        StepSpans.record("checkpoint." + name + "." + used.name().toLowerCase(Locale.ROOT), elapsed, "ok");
+        Restore restore = new Restore(used, elapsed / 1_000_000);
+        log.info("✓ Checkpoint '{}' restored by {}", name, restore);
+        return restore;
+    }
+
+    /**
+     * Restores per strategy with their average cost
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        for (Strategy strategy : Strategy.values()) {
+            AtomicInteger count = counts.get(strategy);
+            if (count != null) {
+                sb.append(String.format("%-10s %4d x  avg %6d ms%n", strategy, count.get(),
+                    nanos.get(strategy).get() / count.get() / 1_000_000));
+            } else if (Boolean.FALSE.equals(supported.get(strategy))) {
+                sb.append(String.format("%-10s not supported%n", strategy));
+            }
+        }
+        return sb.toString();
+    }
+
+    private boolean attempt(Strategy strategy, WebDriver driver) {
+        switch (strategy) {
+            case REUSE:
+                return quietly(() -> present.test(driver) && reset.test(driver));
+            case DEEP_LINK:
+                return quietly(() -> {
+                    signIn.accept(driver);
+                    driver.get(deepLink);
+                    return appears(driver) && reset.test(driver);
+                });
+            case STORAGE:
+                Map<String, Object> saved = snapshot;
+                return saved != null && quietly(() -> {
+                    signIn.accept(driver);
+                    driver.get(String.valueOf(saved.get("url")));
+                    JavascriptExecutor js = (JavascriptExecutor) driver;
+                    js.executeScript(WRITE_STORAGE_SCRIPT, "localStorage", saved.get("localStorage"));
+                    js.executeScript(WRITE_STORAGE_SCRIPT, "sessionStorage", saved.get("sessionStorage"));
+                    driver.navigate().refresh();
+                    return appears(driver) && reset.test(driver);
+                });
+            default:
+                prelude.accept(driver);
+                if (snapshot == null && strategies.contains(Strategy.STORAGE)) {
+                    snapshot = capture(driver);
+                }
+                return true;
+        }
+    }
+
+    private boolean appears(WebDriver driver) {
+        try {
+            return new WebDriverWait(driver, appearTimeout, Duration.ofMillis(100)).until(present::test);
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> capture(WebDriver driver) {
+        try {
+            return (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(READ_STORAGE_SCRIPT);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private boolean quietly(Attempt attempt) {
+        try {
+            return attempt.run();
+        } catch (Exception e) {
+            log.debug("Checkpoint '{}' restore attempt failed: {}", name, e.getMessage());
+            return false;
+        }
+    }
+
+    private interface Attempt {
+        boolean run();
+    }
+
+    /**
+     * Strategy that restored the state and how long it took
+     */
+    public static final class Restore {
+        private final Strategy strategy;
+        private final long millis;
+
+        Restore(Strategy strategy, long millis) {
+            this.strategy = strategy;
+            this.millis = millis;
+        }
+
+        public Strategy getStrategy() {
+            return strategy;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        @Override
+        public String toString() {
+            return strategy + " in " + millis + " ms";
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package Project;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Event-driven waits that return as soon as the UI is ready instead of
+ * sleeping for a fixed time. Readiness is read from a small probe injected
+ * into the page: a MutationObserver for DOM quiescence, counters for pending
+ * XHR/fetch calls and the list of running CSS animations.
+ * Every wait is named and its duration is recorded for the suite summary.
+ * Readiness waits replace fixed sleeps, so like a sleep they never fail the
+ * test: on timeout they report it and return false.
+ *
+ * @author Test Automation Team
+ */
+public class UiWaits {
+
+    private static final TestLog log = TestLog.get(UiWaits.class);
+
+    /**
+     * Installs the probe once per document and returns the current readiness state.
+     * Requests started before the probe was installed are not counted.
+     */
+    private static final String READINESS_SCRIPT =
+        "var w = window;" +
+        "if (!w.__aivoaWait) {" +
+        "  var st = w.__aivoaWait = { pending: 0, lastMutation: Date.now() };" +
+        "  new MutationObserver(function () { st.lastMutation = Date.now(); })" +
+        "    .observe(document, { subtree: true, childList: true, attributes: true, characterData: true });" +
+        "  var send = XMLHttpRequest.prototype.send;" +
+        "  XMLHttpRequest.prototype.send = function () {" +
+        "    st.pending++;" +
+        "    this.addEventListener('loadend', function () { st.pending--; st.lastMutation = Date.now(); });" +
+        "    return send.apply(this, arguments);" +
+        "  };" +
+        "  if (w.fetch) {" +
+        "    var f = w.fetch;" +
+        "    w.fetch = function () {" +
+        "      st.pending++;" +
+        "      var done = function () { st.pending--; st.lastMutation = Date.now(); };" +
+        "      return f.apply(this, arguments).then(function (r) { done(); return r; }," +
+        "                                           function (e) { done(); throw e; });" +
+        "    };" +
+        "  }" +
+        "}" +
+        "var running = 0;" +
+        "if (document.getAnimations) {" +
+        "  document.getAnimations().forEach(function (a) {" +
+        "    var t = a.effect && a.effect.getComputedTiming ? a.effect.getComputedTiming() : null;" +
+        "    if (a.playState === 'running' && !(t && t.iterations === Infinity)) { running++; }" +
+        "  });" +
+        "}" +
+        "return { ready: document.readyState === 'complete', pending: w.__aivoaWait.pending," +
+        "         quietFor: Date.now() - w.__aivoaWait.lastMutation, animations: running };";
+
+    private static final Map<String, Stats> TELEMETRY = new ConcurrentHashMap<>();
+
+    private final WebDriver driver;
+    private final Duration timeout;
+    private final long quietMs;
+
+    public UiWaits(WebDriver driver, Duration timeout) {
+        this.driver = driver;
+        this.timeout = timeout;
+        this.quietMs = TestConfig.longValue("aivoa.wait.quietMs", 150);
+    }
+
+    /**
+     * Wait until the DOM has not changed for the configured quiet window
+     */
+    public boolean domQuiet(String name) {
+        return settle(name, readiness(false, true, false));
+    }
+
+    /**
+     * Wait until no XHR or fetch request is in flight
+     */
+    public boolean networkIdle(String name) {
+        return settle(name, readiness(true, false, false));
+    }
+
+    /**
+     * Wait until the browser has had no request in flight for aivoa.network.quietMs,
+     * as seen over DevTools (covers requests the in-page probe cannot see)
+     */
+    public boolean requestsSettled(String name) {
+        return NetworkObserver.of(driver).awaitSettled(name, timeout);
+    }
+
+    /**
+     * Wait until no finite CSS animation or transition is running
+     */
+    public boolean animationsDone(String name) {
+        return settle(name, readiness(false, false, true));
+    }
+
+    /**
+     * Wait for network idle, DOM quiescence and finished animations together
+     */
+    public boolean settled(String name) {
+        return settle(name, readiness(true, true, true));
+    }
+
+    /**
+     * Wait until the element is visible, e.g. a modal or its content
+     */
+    public WebElement visible(String name, By locator) {
+        return until(name, ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+    /**
+     * Wait until any candidate of the element is visible and enabled
+     */
+    public MultiLocator.Match visible(String name, MultiLocator locator) {
+        return until(name, locator::poll);
+    }
+
+    /**
+     * Wait until the element is visible and enabled
+     */
+    public WebElement enabled(String name, By locator) {
+        return until(name, ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    /**
+     * Run any condition as a named, timed wait
+     */
+    public <T> T until(String name, ExpectedCondition<T> condition) {
+        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        wait.pollingEvery(Duration.ofMillis(50));
+
+        long start = System.nanoTime();
+        boolean timedOut = false;
+        try {
+            return wait.until(condition);
+        } catch (TimeoutException e) {
+            timedOut = true;
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            TELEMETRY.computeIfAbsent(name, k -> new Stats()).record(elapsed, timedOut);
+            StepSpans.record("wait." + name, elapsed, timedOut ? "timeout" : "ok");
+        }
+    }
+
+    /**
+     * A WebDriverWait whose every until() call is recorded as a span named
+     * after the condition, e.g. "wait.element to be clickable"
+     */
+    public static WebDriverWait explicitWait(WebDriver driver, Duration timeout) {
+        return new WebDriverWait(driver, timeout) {
+            @Override
+            public <V> V until(Function<? super WebDriver, V> isTrue) {
+                long start = System.nanoTime();
+                String outcome = "error";
+                try {
+                    V result = super.until(isTrue);
+                    outcome = "ok";
+                    return result;
+                } catch (TimeoutException e) {
+                    outcome = "timeout";
+                    throw e;
+                } finally {
+                    String description = String.valueOf(isTrue);
+                    int colon = description.indexOf(':');
+                    String name = colon > 0 ? description.substring(0, colon) : "explicit";
+                    StepSpans.record("wait." + name.trim(), System.nanoTime() - start, outcome);
+                }
+            }
+        };
+    }
+
+    private boolean settle(String name, ExpectedCondition<Boolean> condition) {
+        try {
+            return until(name, condition);
+        } catch (TimeoutException e) {
+            log.stepWarn("⚠ UI not settled after {}s: {}", timeout.getSeconds(), name);
+            return false;
+        }
+    }
+
+    /**
+     * Per-condition timing summary for all waits run so far
+     */
+    public static String summary() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, Stats> entry : new TreeMap<>(TELEMETRY).entrySet()) {
+            sb.append(entry.getKey()).append(": ").append(entry.getValue()).append("\n");
+        }
+        return sb.toString();
+    }
+
+    private ExpectedCondition<Boolean> readiness(boolean network, boolean dom, boolean animations) {
+        return d -> {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> state = (Map<String, Object>) ((JavascriptExecutor) d).executeScript(READINESS_SCRIPT);
+            if (state == null || !Boolean.TRUE.equals(state.get("ready"))) {
+                return false;
+            }
+            if (network && ((Number) state.get("pending")).longValue() > 0) {
+                return false;
+            }
+            if (dom && ((Number) state.get("quietFor")).longValue() < quietMs) {
+                return false;
+            }
+            return !animations || ((Number) state.get("animations")).longValue() == 0;
+        };
+    }
+
+    private static class Stats {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+
+        void record(long nanos, boolean timedOut) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (timedOut) {
+                timeouts.incrementAndGet();
+            }
+        }
+
+        @Override
+        public String toString() {
+            long n = count.get();
+            return "count=" + n +
+                   ", avgMs=" + (n == 0 ? 0 : totalNanos.get() / n / 1_000_000) +
+                   ", maxMs=" + maxNanos.get() / 1_000_000 +
+                   ", timeouts=" + timeouts.get();
+        }
+    }
+}
@@ -0,0 +1,406 @@
+package Project;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * Generates structurally valid PDF, PNG and JPG upload files of an exact
+ * size, from a few KB up to hundreds of MB. Files are written as a stream
+ * through a small reusable buffer, so the heap never holds one, and the
+ * SHA-256 is computed while writing.
+ *
+ * Generated files are stored once under test-files/.cache/&lt;sha256&gt;.&lt;ext&gt;;
+ * an index maps (type, size) to the hash so later runs reuse them. The
+ * requested name in test-files/ is a hard link to the cached blob (a copy
+ * where links are not supported).
+ *
+ * Size padding: PDF gets an unreferenced binary stream object, PNG private
+ * ancillary chunks, JPG comment segments (0xFF fill bytes for padding too
+ * short for a segment); readers ignore all of them.
+ *
+ * @author Test Automation Team
+ */
+public final class UploadFixtures {
+
+    private static final TestLog log = TestLog.get(UploadFixtures.class);
+
+    private static final File ROOT = new File("test-files");
+    private static final File CACHE = new File(ROOT, ".cache");
+    private static final File INDEX = new File(CACHE, "index.properties");
+    private static final int BLOCK = 64 * 1024;
+    private static final String VERSION = "2";
+    private static final Pattern SIZE = Pattern.compile("(\\d+(?:\\.\\d+)?)\\s*([KMG]?)B?");
+
+    private UploadFixtures() {
+    }
+
+    /**
+     * Default size for upload fixtures, aivoa.fixtures.size (e.g. 64KB, 5MB)
+     */
+    public static long defaultSize() {
+        return parseSize(TestConfig.stringValue("aivoa.fixtures.size", "64KB"));
+    }
+
+    /**
+     * test-files/&lt;fileName&gt; as a valid file of the type given by its extension
+     * and exactly sizeBytes long (or the type's minimum size if that is larger)
+     */
+    public static synchronized File get(String fileName, long sizeBytes) {
+        String ext = extension(fileName);
+        String key = ext + ":" + sizeBytes + ":v" + VERSION;
+        try {
+            CACHE.mkdirs();
+            Properties index = loadIndex();
+            File blob = index.containsKey(key) ? new File(CACHE, index.getProperty(key)) : null;
+            if (blob == null || !blob.exists()) {
+                long start = System.nanoTime();
+                blob = generate(ext, sizeBytes);
+                index.setProperty(key, blob.getName());
+                saveIndex(index);
+                log.step("✓ Generated {} ({}) in {} ms", blob.getName(), formatSize(blob.length()), (System.nanoTime() - start) / 1_000_000);
+            }
+            return link(blob, new File(ROOT, fileName));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create fixture " + fileName, e);
+        }
+    }
+
+    /**
+     * Parses 512, 512B, 64K, 64KB, 5M, 5MB, 1G or 1GB (binary units).
+     * Throws IllegalArgumentException for anything else.
+     */
+    public static long parseSize(String text) {
+        Matcher m = SIZE.matcher(text.trim().toUpperCase(Locale.ROOT));
+        if (!m.matches()) {
+            throw new IllegalArgumentException("Not a size: '" + text + "' (expected e.g. 512, 64KB or 5MB)");
+        }
+        long unit;
+        switch (m.group(2)) {
+            case "G":
+                unit = 1L << 30;
+                break;
+            case "M":
+                unit = 1L << 20;
+                break;
+            case "K":
+                unit = 1L << 10;
+                break;
+            default:
+                unit = 1;
+        }
+        return (long) (Double.parseDouble(m.group(1)) * unit);
+    }
+
+    public static String formatSize(long bytes) {
+        if (bytes < 1024) {
+            return bytes + " B";
+        }
+        if (bytes < 1024 * 1024) {
+            return String.format(Locale.ROOT, "%.1f KB", bytes / 1024.0);
+        }
+        return String.format(Locale.ROOT, "%.1f MB", bytes / 1024.0 / 1024.0);
+    }
+
+    private static File generate(String ext, long size) throws IOException {
+        File tmp = File.createTempFile("fixture-", "." + ext, CACHE);
+        MessageDigest sha;
+        try {
+            sha = MessageDigest.getInstance("SHA-256");
+        } catch (Exception e) {
+            throw new IOException(e);
+        }
+        try (OutputStream out = new DigestOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath()), BLOCK), sha)) {
+            Filler filler = new Filler(ext.hashCode() * 31L + size);
+            switch (ext) {
+                case "pdf":
+                    writePdf(out, size, filler);
+                    break;
+                case "png":
+                    writePng(out, size, filler);
+                    break;
+                default:
+                    writeJpg(out, size, filler);
+            }
+        }
+        StringBuilder hex = new StringBuilder();
+        for (byte b : sha.digest()) {
+            hex.append(String.format("%02x", b));
+        }
+        File blob = new File(CACHE, hex + "." + ext);
+        Files.move(tmp.toPath(), blob.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        return blob;
+    }
+
+    // ---------------------------------------------------------------- PDF
+
+    private static void writePdf(OutputStream out, long size, Filler filler) throws IOException {
+        String content = "BT /F1 18 Tf 72 720 Td (AIVOA upload fixture) Tj ET";
+        String[] objects = {
+            "<< /Type /Catalog /Pages 2 0 R >>",
+            "<< /Type /Pages /Kids [3 0 R] /Count 1 >>",
+            "<< /Type /Page /Parent 2 0 R /MediaBox [0 0 612 792] /Contents 4 0 R /Resources << /Font << /F1 5 0 R >> >> >>",
+            "<< /Length " + content.length() + " >>\nstream\n" + content + "\nendstream",
+            "<< /Type /Font /Subtype /Type1 /BaseFont /Helvetica >>"
+        };
+
+        StringBuilder head = new StringBuilder("%PDF-1.4\n%âãÏÓ\n");
+        long[] offsets = new long[7];
+        for (int i = 0; i < objects.length; i++) {
+            offsets[i + 1] = head.length();
+            head.append(i + 1).append(" 0 obj\n").append(objects[i]).append("\nendobj\n");
+        }
+        offsets[6] = head.length();
+
+        // Object 6 is an unreferenced stream holding the padding. The xref
+        // offset grows with the padding, so settle its digit count first.
+        String paddingEnd = "\nendstream\nendobj\n";
+        long padding = 0;
+        for (int attempt = 0; attempt < 4; attempt++) {
+            long xref = head.length() + pdfPaddingStart(padding).length() + padding + paddingEnd.length();
+            long total = xref + pdfTail(offsets, xref).length();
+            if (total == size) {
+                break;
+            }
+            padding = Math.max(0, padding + size - total);
+        }
+
+        String paddingStart = pdfPaddingStart(padding);
+        long xrefOffset = head.length() + paddingStart.length() + padding + paddingEnd.length();
+        out.write(head.toString().getBytes(StandardCharsets.ISO_8859_1));
+        out.write(paddingStart.getBytes(StandardCharsets.ISO_8859_1));
+        filler.write(out, padding);
+        out.write(paddingEnd.getBytes(StandardCharsets.ISO_8859_1));
+        out.write(pdfTail(offsets, xrefOffset).getBytes(StandardCharsets.ISO_8859_1));
+    }
+
+    private static String pdfPaddingStart(long padding) {
+        return "6 0 obj\n<< /Length " + padding + " >>\nstream\n";
+    }
+
+    private static String pdfTail(long[] offsets, long xrefOffset) {
+        StringBuilder sb = new StringBuilder("xref\n0 7\n0000000000 65535 f \n");
+        for (int i = 1; i < offsets.length; i++) {
+            sb.append(String.format("%010d 00000 n \n", offsets[i]));
+        }
+        sb.append("trailer\n<< /Size 7 /Root 1 0 R >>\nstartxref\n").append(xrefOffset).append("\n%%EOF\n");
+        return sb.toString();
+    }
+
+    // ---------------------------------------------------------------- PNG
+
+    private static final byte[] PNG_SIGNATURE = { (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1a, '\n' };
+    private static final int MAX_CHUNK = 1 << 20;
+
+    private static void writePng(OutputStream out, long size, Filler filler) throws IOException {
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(sampleImage(), "png", image);
+        byte[] png = image.toByteArray();
+        // Everything up to IEND (last 12 bytes) is the image; padding chunks go before IEND
+        int bodyLength = png.length - 12;
+        long base = png.length + 12 + "Comment".length() + 1;
+        long remaining = Math.max(0, size - base);
+
+        // Small remainders are absorbed by the tEXt comment, the rest by private chunks
+        long chunkBytes = 0;
+        long commentExtra = remaining;
+        if (remaining >= 12 + 64) {
+            chunkBytes = remaining - 64;
+            commentExtra = 64;
+        }
+
+        out.write(png, 0, bodyLength);
+        byte[] text = new byte["Comment".length() + 1 + (int) commentExtra];
+        System.arraycopy("Comment".getBytes(StandardCharsets.ISO_8859_1), 0, text, 0, 7);
+        for (int i = 8; i < text.length; i++) {
+            text[i] = ' ';
+        }
+        writeChunk(out, "tEXt", text);
+
+        // prVt: ancillary, private, safe-to-copy
+        while (chunkBytes > 0) {
+            long data = Math.min(MAX_CHUNK, chunkBytes - 12);
+            if (chunkBytes - 12 - data > 0 && chunkBytes - 12 - data < 12) {
+                data -= 12;
+            }
+            writePaddingChunk(out, (int) data, filler);
+            chunkBytes -= 12 + data;
+        }
+        out.write(png, bodyLength, 12);
+    }
+
+    private static void writeChunk(OutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.ISO_8859_1);
+        writeInt(out, data.length);
+        out.write(typeBytes);
+        out.write(data);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        writeInt(out, (int) crc.getValue());
+    }
+
+    private static void writePaddingChunk(OutputStream out, int length, Filler filler) throws IOException {
+        byte[] typeBytes = "prVt".getBytes(StandardCharsets.ISO_8859_1);
+        writeInt(out, length);
+        out.write(typeBytes);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        filler.write(out, length, crc);
+        writeInt(out, (int) crc.getValue());
+    }
+
+    private static void writeInt(OutputStream out, int value) throws IOException {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+    // ---------------------------------------------------------------- JPG
+
+    private static final int MAX_SEGMENT = 65533;
+
+    private static void writeJpg(OutputStream out, long size, Filler filler) throws IOException {
+        ByteArrayOutputStream image = new ByteArrayOutputStream();
+        ImageIO.write(sampleImage(), "jpg", image);
+        byte[] jpg = image.toByteArray();
+        long remaining = Math.max(0, size - jpg.length);
+
+        // SOI, then COM segments (4 bytes overhead each), then the rest of the image
+        out.write(jpg, 0, 2);
+        if (remaining < 4) {
+            // Too short for a segment: fill bytes, which may precede any marker
+            for (; remaining > 0; remaining--) {
+                out.write(0xFF);
+            }
+        }
+        while (remaining > 0) {
+            long data = Math.min(MAX_SEGMENT, remaining - 4);
+            // Never leave a 1-3 byte tail that no segment could hold
+            if (remaining - 4 - data > 0 && remaining - 4 - data < 4) {
+                data -= 4;
+            }
+            out.write(0xFF);
+            out.write(0xFE);
+            out.write((int) ((data + 2) >>> 8));
+            out.write((int) (data + 2));
+            filler.write(out, data);
+            remaining -= 4 + data;
+        }
+        out.write(jpg, 2, jpg.length - 2);
+    }
+
+    private static BufferedImage sampleImage() {
+        BufferedImage image = new BufferedImage(320, 200, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(new Color(0x1d3557));
+        g.fillRect(0, 0, 320, 200);
+        g.setColor(Color.WHITE);
+        g.setFont(new Font(Font.SANS_SERIF, Font.BOLD, 20));
+        g.drawString("AIVOA upload fixture", 50, 105);
+        g.dispose();
+        return image;
+    }
+
+    // ---------------------------------------------------------------- cache
+
+    private static File link(File blob, File target) throws IOException {
+        if (target.exists()) {
+            if (Files.isSameFile(blob.toPath(), target.toPath())) {
+                return target;
+            }
+            Files.delete(target.toPath());
+        }
+        try {
+            Files.createLink(target.toPath(), blob.toPath());
+        } catch (IOException | UnsupportedOperationException e) {
+            Files.copy(blob.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target;
+    }
+
+    private static Properties loadIndex() throws IOException {
+        Properties index = new Properties();
+        if (INDEX.exists()) {
+            try (InputStream in = Files.newInputStream(INDEX.toPath())) {
+                index.load(in);
+            }
+        }
+        return index;
+    }
+
+    private static void saveIndex(Properties index) throws IOException {
+        File tmp = new File(CACHE, "index.properties.tmp");
+        try (OutputStream out = Files.newOutputStream(tmp.toPath())) {
+            index.store(out, "Upload fixtures: <type>:<size>:v<generator version> = <sha256>.<ext>");
+        }
+        Files.move(tmp.toPath(), INDEX.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static String extension(String fileName) {
+        String ext = fileName.substring(fileName.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT);
+        if (ext.equals("jpeg")) {
+            return "jpg";
+        }
+        if (!ext.equals("pdf") && !ext.equals("png") && !ext.equals("jpg")) {
+            throw new IllegalArgumentException("Unsupported fixture type: " + fileName);
+        }
+        return ext;
+    }
+
+    /**
+     * Deterministic, incompressible filler bytes (xorshift64) written through one reusable block
+     */
+    private static final class Filler {
+        private final byte[] block = new byte[BLOCK];
+        private long state;
+
+        Filler(long seed) {
+            this.state = seed == 0 ? 0x9E3779B97F4A7C15L : seed;
+        }
+
+        void write(OutputStream out, long length) throws IOException {
+            write(out, length, null);
+        }
+
+        void write(OutputStream out, long length, CRC32 crc) throws IOException {
+            while (length > 0) {
+                int n = (int) Math.min(block.length, length);
+                for (int i = 0; i < n; i += 8) {
+                    state ^= state << 13;
+                    state ^= state >>> 7;
+                    state ^= state << 17;
+                    long v = state;
+                    for (int j = i; j < Math.min(i + 8, n); j++, v >>>= 8) {
+                        block[j] = (byte) v;
+                    }
+                }
+                out.write(block, 0, n);
+                if (crc != null) {
+                    crc.update(block, 0, n);
+                }
+                length -= n;
+            }
+        }
+    }
+}
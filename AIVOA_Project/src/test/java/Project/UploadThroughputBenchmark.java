@@ -0,0 +1,272 @@
+package Project;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.json.Json;
+import org.testng.Assert;
+import org.testng.Reporter;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Upload performance mode for the External PO upload widget
+ * (mvn test -Pupload-benchmark). Sends aivoa.upload.files files of
+ * aivoa.upload.size each, first one at a time and then as newline-joined
+ * multi-select batches of aivoa.upload.batch files, and reports per file:
+ * time from sendKeys until the file is listed and until it is uploaded,
+ * plus the matching network request's duration and TTFB from Resource Timing.
+ *
+ * Appearance and completion are stamped in the page by UploadVerifier, on
+ * the same clock as Resource Timing. Requests are matched to files in send
+ * order among resources whose URL contains aivoa.upload.urlPattern. A file
+ * the widget never shows as uploaded is complete at its request's
+ * responseEnd; without either, its completion is reported as unknown.
+ *
+ * @author Test Automation Team
+ */
+public class UploadThroughputBenchmark {
+
+    private static final TestLog log = TestLog.get(UploadThroughputBenchmark.class);
+
+    private static final File REPORT_FILE = new File("target/upload-benchmark.json");
+    private static final String[] TYPES = { "pdf", "png", "jpg" };
+
+    private static final String RESOURCES_SCRIPT =
+        "var since = arguments[0], pattern = arguments[1];" +
+        "return performance.getEntriesByType('resource').filter(function (e) {" +
+        "  return e.startTime >= since && e.name.indexOf(pattern) >= 0 &&" +
+        "         (e.initiatorType === 'fetch' || e.initiatorType === 'xmlhttprequest');" +
+        "}).sort(function (a, b) { return a.startTime - b.startTime; }).map(function (e) {" +
+        "  return { url: e.name, start: e.startTime, duration: e.duration, responseEnd: e.responseEnd," +
+        "           ttfb: e.responseStart > 0 ? e.responseStart - e.requestStart : null," +
+        "           transferSize: e.transferSize };" +
+        "});";
+
+    private final AdditionalExternalPOTests suite = new AdditionalExternalPOTests();
+    private final Map<String, Object> report = new LinkedHashMap<>();
+    private int fileCount;
+    private long fileSize;
+    private int batchSize;
+    private long timeoutMs;
+    private String urlPattern;
+
+    @BeforeClass
+    public void setUpUploads() {
+        fileCount = Math.max(1, TestConfig.intValue("aivoa.upload.files", 10));
+        fileSize = UploadFixtures.parseSize(TestConfig.stringValue("aivoa.upload.size", "1MB"));
+        batchSize = Math.max(1, TestConfig.intValue("aivoa.upload.batch", fileCount));
+        timeoutMs = TestConfig.longValue("aivoa.upload.timeoutSec", 300) * 1000;
+        urlPattern = TestConfig.stringValue("aivoa.upload.urlPattern", "upload");
+        new File("test-files").mkdirs();
+        suite.setupSuite();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDownUploads() {
+        try {
+            REPORT_FILE.getParentFile().mkdirs();
+            Files.write(REPORT_FILE.toPath(), new Json().toJson(report).getBytes(StandardCharsets.UTF_8));
+            log.info("✓ Upload report written: {}", REPORT_FILE.getPath());
+        } catch (Exception e) {
+            log.warn("⚠ Could not write upload report: {}", e.getMessage());
+        }
+        suite.tearDownSuite();
+    }
+
+    @Test(description = "Upload throughput: one file per sendKeys")
+    public void singleFileUploads() {
+        runMode("single", 1);
+    }
+
+    @Test(description = "Upload throughput: newline-joined multi-select batches")
+    public void multiSelectUploads() {
+        runMode("multi", batchSize);
+    }
+
+    private void runMode(String mode, int perBatch) {
+        TestContext.setTestId("upload-" + mode);
+        suite.openReceiptForm();
+        try {
+            WebDriver driver = suite.getDriver();
+            JavascriptExecutor js = (JavascriptExecutor) driver;
+            if (driver.findElements(AdditionalExternalPOTests.FILE_INPUT).isEmpty()) {
+                driver.findElement(AdditionalExternalPOTests.UPLOAD_FILES_BUTTON).click();
+            }
+            UploadVerifier verifier = new UploadVerifier(driver, AdditionalExternalPOTests.FILE_INPUT);
+            Assert.assertTrue(verifier.startRecording(), "File input not found");
+
+            List<File> files = new ArrayList<>();
+            for (int i = 0; i < fileCount; i++) {
+                String name = String.format("upload-%s-%03d.%s", mode, i + 1, TYPES[i % TYPES.length]);
+                files.add(UploadFixtures.get(name, fileSize));
+            }
+
+            log.open("UPLOADS: " + mode.toUpperCase() + " (" + fileCount + " x " + UploadFixtures.formatSize(fileSize) + ", batch " + perBatch + ")");
+            Map<String, Double> sentAt = new LinkedHashMap<>();
+            double firstSend = ((Number) js.executeScript("return performance.now();")).doubleValue();
+            long wallStart = System.nanoTime();
+            for (int from = 0; from < files.size(); from += perBatch) {
+                List<File> batch = files.subList(from, Math.min(files.size(), from + perBatch));
+                List<String> paths = new ArrayList<>();
+                for (File f : batch) {
+                    paths.add(f.getAbsolutePath());
+                }
+                WebElement input = driver.findElement(AdditionalExternalPOTests.FILE_INPUT);
+                double t0 = ((Number) js.executeScript("return performance.now();")).doubleValue();
+                input.sendKeys(String.join("\n", paths));
+                for (File f : batch) {
+                    sentAt.put(f.getName(), t0);
+                }
+                awaitFinished(verifier, js, batch, t0);
+            }
+            long wallNanos = System.nanoTime() - wallStart;
+
+            Map<String, Map<String, Number>> stamps = verifier.recorded();
+            @SuppressWarnings("unchecked")
+            List<Map<String, Object>> requests = (List<Map<String, Object>>) js.executeScript(RESOURCES_SCRIPT, firstSend, urlPattern);
+            summarize(mode, perBatch, files, sentAt, stamps, requests, wallNanos);
+        } finally {
+            log.close();
+            suite.tearDown();
+        }
+    }
+
+    /**
+     * Poll until every file of the batch is shown as uploaded or failed, or
+     * as many upload requests as the batch has files have completed since it
+     * was sent (Resource Timing lists a request once its response has ended)
+     */
+    private void awaitFinished(UploadVerifier verifier, JavascriptExecutor js, List<File> batch, double sentAt) {
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        while (System.currentTimeMillis() < deadline) {
+            Map<String, Map<String, Number>> stamps = verifier.recorded();
+            boolean finished = true;
+            for (File f : batch) {
+                finished &= stamp(stamps, "done", f.getName()) != null || stamp(stamps, "failed", f.getName()) != null;
+            }
+            if (finished || ((List<?>) js.executeScript(RESOURCES_SCRIPT, sentAt, urlPattern)).size() >= batch.size()) {
+                return;
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.stepWarn("⚠ Batch did not finish within {} s", timeoutMs / 1000);
+    }
+
+    private void summarize(String mode, int perBatch, List<File> files, Map<String, Double> sentAt,
+                           Map<String, Map<String, Number>> stamps, List<Map<String, Object>> requests, long wallNanos) {
+        List<Long> appear = new ArrayList<>();
+        List<Long> complete = new ArrayList<>();
+        List<Long> network = new ArrayList<>();
+        List<Long> ttfb = new ArrayList<>();
+        List<Map<String, Object>> rows = new ArrayList<>();
+        List<String> missing = new ArrayList<>();
+        int failed = 0;
+        int unknown = 0;
+
+        for (int i = 0; i < files.size(); i++) {
+            String name = files.get(i).getName();
+            double t0 = sentAt.get(name);
+            Number seen = stamp(stamps, "seen", name);
+            Number done = stamp(stamps, "done", name);
+            Map<String, Object> request = i < requests.size() ? requests.get(i) : null;
+            if (done == null && request != null) {
+                done = (Number) request.get("responseEnd");
+            }
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("file", name);
+            row.put("bytes", files.get(i).length());
+            row.put("appearMs", seen == null ? null : seen.doubleValue() - t0);
+            row.put("completeMs", done == null ? null : done.doubleValue() - t0);
+            if (seen != null) {
+                appear.add(toNanos(seen.doubleValue() - t0));
+            } else {
+                missing.add(name);
+            }
+            if (done != null) {
+                complete.add(toNanos(done.doubleValue() - t0));
+            } else {
+                unknown++;
+            }
+            if (stamp(stamps, "failed", name) != null) {
+                failed++;
+            }
+            if (request != null) {
+                row.put("networkMs", request.get("duration"));
+                row.put("ttfbMs", request.get("ttfb"));
+                network.add(toNanos(((Number) request.get("duration")).doubleValue()));
+                if (request.get("ttfb") != null) {
+                    ttfb.add(toNanos(((Number) request.get("ttfb")).doubleValue()));
+                }
+            }
+            rows.add(row);
+        }
+
+        long totalBytes = fileCount * fileSize;
+        double seconds = wallNanos / 1e9;
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("files", fileCount);
+        summary.put("bytesPerFile", fileSize);
+        summary.put("batchSize", perBatch);
+        summary.put("wallSeconds", seconds);
+        summary.put("filesPerSecond", fileCount / seconds);
+        summary.put("mbPerSecond", totalBytes / 1024.0 / 1024.0 / seconds);
+        summary.put("failed", failed);
+        summary.put("missing", missing.size());
+        summary.put("completionUnknown", unknown);
+        summary.put("requestsMatched", Math.min(requests.size(), files.size()));
+        Map<String, Object> modeReport = new LinkedHashMap<>();
+        modeReport.put("summary", summary);
+        modeReport.put("files", rows);
+        report.put(mode, modeReport);
+
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format("%d files, %s total in %.2f s: %.2f files/s, %.2f MB/s, failed=%d, missing=%d, completion unknown=%d",
+            fileCount, UploadFixtures.formatSize(totalBytes), seconds, fileCount / seconds,
+            totalBytes / 1024.0 / 1024.0 / seconds, failed, missing.size(), unknown));
+        lines.add(stats(mode + ".sendKeys->listed", appear, wallNanos));
+        lines.add(stats(mode + ".sendKeys->uploaded", complete, wallNanos));
+        lines.add(stats(mode + ".network", network, wallNanos));
+        lines.add(stats(mode + ".ttfb", ttfb, wallNanos));
+        for (String line : lines) {
+            log.step("{}", line);
+            Reporter.log(line);
+        }
+
+        Assert.assertTrue(missing.isEmpty(), "Files never listed in the upload area: " + missing);
+    }
+
+    private static String stats(String name, List<Long> samples, long wallNanos) {
+        if (samples.isEmpty()) {
+            return String.format("%-34s no samples", name);
+        }
+        long[] values = new long[samples.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = samples.get(i);
+        }
+        return new Benchmark.Result(name, values, wallNanos).toString();
+    }
+
+    private static Number stamp(Map<String, Map<String, Number>> stamps, String kind, String name) {
+        Map<String, Number> byName = stamps.get(kind);
+        return byName == null ? null : byName.get(name);
+    }
+
+    private static long toNanos(double ms) {
+        return (long) (ms * 1_000_000);
+    }
+}
@@ -0,0 +1,201 @@
+package Project;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Reads the files shown in the upload widget without serializing the page.
+ * The upload area is the nearest upload/dropzone/attachment container around
+ * the file input. Only that area is scanned for file entries, and each entry
+ * is returned as name, size text and status.
+ *
+ * startRecording() installs an observer on the upload area that stamps,
+ * in page time, when each file first appears and when it finishes, so
+ * upload latency can be measured without polling from the test.
+ *
+ * @author Test Automation Team
+ */
+public class UploadVerifier {
+
+    /**
+     * area(input) is the upload container around the file input, searched
+     * from its parent so an input whose own class matches is not the area;
+     * entries(input) returns [{name, size, status}] for file entries in it
+     */
+    private static final String ENTRIES_FUNCTION = Locators.FIND_FUNCTION +
+        "function area(input) {" +
+        "  var parent = input.parentElement;" +
+        "  return (parent && parent.closest('[class*=upload], [class*=dropzone], [class*=attachment], [class*=file-list]'))" +
+        "         || input.form || parent;" +
+        "}" +
+        "function entries(input) {" +
+        "var NAME = /([\\w\\-. ()]+\\.(pdf|png|jpe?g|gif|tiff?|docx?|xlsx?|csv|txt))\\b/i;" +
+        "var SIZE = /(\\d+(?:\\.\\d+)?\\s?(?:B|KB|MB|GB))\\b/i;" +
+        "var items = area(input).querySelectorAll('li, [class*=file-item], [class*=uploaded], [class*=file-name], [class*=attachment], [data-file]');" +
+        "var seen = {}, out = [];" +
+        "for (var i = 0; i < items.length; i++) {" +
+        "  var e = items[i];" +
+        "  if (e === input || !visible(e)) { continue; }" +
+        "  var text = (e.innerText || e.getAttribute('data-file') || '').trim();" +
+        "  var m = NAME.exec(text);" +
+        "  if (!m || seen[m[1].trim()]) { continue; }" +
+        "  var name = m[1].trim(); seen[name] = true;" +
+        "  var s = SIZE.exec(text);" +
+        "  var hint = ((e.className || '') + ' ' + text).toLowerCase();" +
+        "  var status = /error|fail|invalid/.test(hint) ? 'failed'" +
+        "             : /progress|uploading|\\d+%/.test(hint) ? 'uploading'" +
+        "             : /success|done|complete|uploaded/.test(hint) ? 'uploaded' : 'listed';" +
+        "  out.push({ name: name, size: s ? s[1] : null, status: status });" +
+        "}" +
+        "return out;" +
+        "}";
+
+    /**
+     * File entries in the upload area, or null if the file input is not on the page
+     */
+    private static final String LIST_SCRIPT = ENTRIES_FUNCTION +
+        "var input = find(arguments[0])[0];" +
+        "return input ? entries(input) : null;";
+
+    /**
+     * Observes the upload area and stamps performance.now() per file name in
+     * window.__aivoaUploads: seen (first listed), done (shown as uploaded) and
+     * failed. A file that stays merely listed gets no done stamp, since the
+     * widget has not said it finished.
+     */
+    private static final String RECORD_SCRIPT = ENTRIES_FUNCTION +
+        "var input = find(arguments[0])[0];" +
+        "if (!input) { return false; }" +
+        "if (window.__aivoaUploadObserver) { window.__aivoaUploadObserver.disconnect(); }" +
+        "try { performance.setResourceTimingBufferSize(100000); } catch (e) {}" +
+        "var rec = window.__aivoaUploads = { seen: {}, done: {}, failed: {} };" +
+        "function scan() {" +
+        "  var now = performance.now();" +
+        "  entries(input).forEach(function (f) {" +
+        "    if (rec.seen[f.name] === undefined) { rec.seen[f.name] = now; }" +
+        "    if (f.status === 'failed' && rec.failed[f.name] === undefined) { rec.failed[f.name] = now; }" +
+        "    if (f.status === 'uploaded' && rec.done[f.name] === undefined) { rec.done[f.name] = now; }" +
+        "  });" +
+        "}" +
+        "window.__aivoaUploadObserver = new MutationObserver(scan);" +
+        "window.__aivoaUploadObserver.observe(area(input), { subtree: true, childList: true, characterData: true, attributes: true });" +
+        "scan();" +
+        "return true;";
+
+    private static final String RECORDED_SCRIPT =
+        "return window.__aivoaUploads || null;";
+
+    private final WebDriver driver;
+    private final By fileInput;
+
+    public UploadVerifier(WebDriver driver, By fileInput) {
+        this.driver = driver;
+        this.fileInput = fileInput;
+    }
+
+    /**
+     * Files currently shown in the upload area
+     */
+    @SuppressWarnings("unchecked")
+    public List<UploadedFile> listFiles() {
+        List<UploadedFile> files = new ArrayList<>();
+        Object result = ((JavascriptExecutor) driver).executeScript(LIST_SCRIPT, Locators.toScriptLocator(fileInput));
+        if (result != null) {
+            for (Map<String, Object> item : (List<Map<String, Object>>) result) {
+                files.add(new UploadedFile((String) item.get("name"), (String) item.get("size"), (String) item.get("status")));
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Start stamping file appearance and completion in the page.
+     * Returns false if the file input is not on the page.
+     */
+    public boolean startRecording() {
+        return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(
+            RECORD_SCRIPT, Locators.toScriptLocator(fileInput)));
+    }
+
+    /**
+     * Page-time stamps since startRecording(): {seen: {name: ms}, done: {...}, failed: {...}}
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Map<String, Number>> recorded() {
+        Object result = ((JavascriptExecutor) driver).executeScript(RECORDED_SCRIPT);
+        return result == null ? new HashMap<>() : (Map<String, Map<String, Number>>) result;
+    }
+
+    /**
+     * Wait until at least the given number of files is shown.
+     * Returns whatever is shown when the timeout expires.
+     */
+    public List<UploadedFile> waitForFiles(int expected, Duration timeout) {
+        AtomicReference<List<UploadedFile>> last = new AtomicReference<>(new ArrayList<>());
+        WebDriverWait wait = new WebDriverWait(driver, timeout);
+        wait.pollingEvery(Duration.ofMillis(100));
+        try {
+            wait.until(d -> {
+                List<UploadedFile> files = listFiles();
+                last.set(files);
+                return files.size() >= expected;
+            });
+        } catch (TimeoutException e) {
+            // Fall through with the last snapshot
+        }
+        return last.get();
+    }
+
+    /**
+     * Returns true if a shown file name contains the given fragment
+     */
+    public static boolean containsFile(List<UploadedFile> files, String nameFragment) {
+        for (UploadedFile file : files) {
+            if (file.getName().contains(nameFragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A file entry as shown in the upload area
+     */
+    public static final class UploadedFile {
+        private final String name;
+        private final String size;
+        private final String status;
+
+        public UploadedFile(String name, String size, String status) {
+            this.name = name;
+            this.size = size;
+            this.status = status;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSize() {
+            return size;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        @Override
+        public String toString() {
+            return name + (size == null ? "" : " (" + size + ")") + " - " + status;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package Project;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects form validation state with one executeScript call.
+ * All error selectors are evaluated in the page, so a selector that matches
+ * nothing costs nothing, and no implicit wait is triggered.
+ *
+ * @author Test Automation Team
+ */
+public final class ValidationErrors {
+
+    private static final TestLog log = TestLog.get(ValidationErrors.class);
+
+    /**
+     * Selectors that identify a visible validation message
+     */
+    private static final List<String> ERROR_XPATHS = Arrays.asList(
+        "//div[contains(@class, 'error') and not(contains(@class, 'hidden'))]",
+        "//span[contains(@class, 'error') and not(contains(@class, 'hidden'))]",
+        "//p[contains(@class, 'error')]",
+        "//*[contains(text(), 'required')]",
+        "//*[contains(text(), 'Required')]",
+        "//*[contains(@class, 'invalid')]",
+        "//span[contains(@class, 'text-red')]",
+        "//*[contains(@class, 'error-message')]"
+    );
+
+    /**
+     * Returns [{text, field}] for every distinct visible error message.
+     * The owning field is the input referencing the message through
+     * aria-describedby, or else the nearest input in the surrounding markup.
+     */
+    private static final String COLLECT_SCRIPT = Locators.FIND_FUNCTION +
+        "function fieldName(f) { return f ? (f.id || f.name || f.placeholder || f.tagName.toLowerCase()) : null; }" +
+        "function owner(e) {" +
+        "  if (e.id) {" +
+        "    var ref = document.querySelector('[aria-describedby~=\"' + e.id + '\"]');" +
+        "    if (ref) { return ref; }" +
+        "  }" +
+        "  if (/^(INPUT|SELECT|TEXTAREA)$/.test(e.tagName)) { return e; }" +
+        "  var n = e.parentElement;" +
+        "  for (var depth = 0; n && depth < 4; depth++, n = n.parentElement) {" +
+        "    var f = n.querySelector('input:not([type=hidden]), select, textarea');" +
+        "    if (f) { return f; }" +
+        "  }" +
+        "  return null;" +
+        "}" +
+        "var seen = {}, out = [];" +
+        "arguments[0].forEach(function (x) {" +
+        "  find({ using: 'xpath', value: x }).forEach(function (e) {" +
+        "    if (!visible(e)) { return; }" +
+        "    var text = (e.innerText || '').trim();" +
+        "    if (!text || seen[text]) { return; }" +
+        "    seen[text] = true;" +
+        "    out.push({ text: text, field: fieldName(owner(e)) });" +
+        "  });" +
+        "});" +
+        "return out;";
+
+    /**
+     * Returns true if the first element matching the locator, or its parent,
+     * is marked as invalid by class name or aria-invalid
+     */
+    private static final String FIELD_ERROR_SCRIPT = Locators.FIND_FUNCTION +
+        "function bad(c) { return /error|invalid|border-red/.test(c || ''); }" +
+        "var f = find(arguments[0])[0];" +
+        "if (!f) { return false; }" +
+        "var p = f.parentElement;" +
+        "return bad(f.getAttribute('class')) || f.getAttribute('aria-invalid') === 'true' ||" +
+        "       (p != null && bad(p.getAttribute('class')));";
+
+    /**
+     * Takes the error state off the given fields: aria-invalid, error classes
+     * on the field and its parent, and error messages it references through
+     * aria-describedby or that sit next to it. Returns how many fields had any.
+     */
+    private static final String CLEAR_SCRIPT = Locators.FIND_FUNCTION +
+        "function bad(c) { return /error|invalid|border-red/.test(c || ''); }" +
+        "function strip(e) {" +
+        "  var had = false;" +
+        "  Array.prototype.slice.call(e.classList).forEach(function (c) {" +
+        "    if (bad(c)) { e.classList.remove(c); had = true; }" +
+        "  });" +
+        "  return had;" +
+        "}" +
+        "var cleared = 0;" +
+        "arguments[0].forEach(function (l) {" +
+        "  var f = find(l)[0];" +
+        "  if (!f) { return; }" +
+        "  var had = f.getAttribute('aria-invalid') === 'true';" +
+        "  f.removeAttribute('aria-invalid');" +
+        "  (f.getAttribute('aria-describedby') || '').split(/\\s+/).forEach(function (id) {" +
+        "    var m = id ? document.getElementById(id) : null;" +
+        "    if (m && bad(m.getAttribute('class'))) { m.remove(); had = true; }" +
+        "  });" +
+        "  var p = f.parentElement;" +
+        "  if (p) {" +
+        "    Array.prototype.slice.call(p.children).forEach(function (m) {" +
+        "      if (m !== f && bad(m.getAttribute('class')) && !m.querySelector('input, select, textarea')) { m.remove(); had = true; }" +
+        "    });" +
+        "    had = strip(p) || had;" +
+        "  }" +
+        "  had = strip(f) || had;" +
+        "  if (had) { cleared++; }" +
+        "});" +
+        "return cleared;";
+
+    private ValidationErrors() {
+    }
+
+    /**
+     * Visible, de-duplicated validation messages with the field they belong to
+     */
+    @SuppressWarnings("unchecked")
+    public static List<FieldError> collect(WebDriver driver) {
+        List<FieldError> errors = new ArrayList<>();
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(COLLECT_SCRIPT, ERROR_XPATHS);
+            for (Map<String, Object> item : (List<Map<String, Object>>) result) {
+                errors.add(new FieldError((String) item.get("text"), (String) item.get("field")));
+            }
+        } catch (Exception e) {
+            log.stepWarn("⚠ Could not collect validation errors: {}", e.getMessage());
+        }
+        return errors;
+    }
+
+    /**
+     * Checks whether a specific field is in an error state
+     */
+    public static boolean hasFieldError(WebDriver driver, By fieldLocator) {
+        try {
+            Object result = ((JavascriptExecutor) driver).executeScript(
+                FIELD_ERROR_SCRIPT, Locators.toScriptLocator(fieldLocator));
+            return Boolean.TRUE.equals(result);
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Take the error state off the given fields in one round trip, e.g. to
+     * reuse a form for the next test; returns how many fields had any
+     */
+    public static int clear(WebDriver driver, List<By> fields) {
+        List<Map<String, Object>> locators = new ArrayList<>();
+        for (By field : fields) {
+            locators.add(Locators.toScriptLocator(field));
+        }
+        Object count = ((JavascriptExecutor) driver).executeScript(CLEAR_SCRIPT, locators);
+        return count instanceof Number ? ((Number) count).intValue() : 0;
+    }
+
+    /**
+     * A validation message and the id/name of the field it belongs to (may be null)
+     */
+    public static final class FieldError {
+        private final String text;
+        private final String field;
+
+        public FieldError(String text, String field) {
+            this.text = text;
+            this.field = field;
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getField() {
+            return field;
+        }
+
+        @Override
+        public String toString() {
+            return field == null ? text : text + " [" + field + "]";
+        }
+    }
+}
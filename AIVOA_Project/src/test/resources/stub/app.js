@@ -0,0 +1,107 @@
+(function () {
+  'use strict';
+
+  var modal = document.getElementById('receipt-type-modal');
+  var page = document.getElementById('inbound-page');
+
+  function render(templateId) {
+    var node = document.getElementById(templateId).content.firstElementChild.cloneNode(true);
+    var existing = document.querySelector('.receipt-form, #verify-step');
+    if (existing) { existing.remove(); }
+    page.appendChild(node);
+    return node;
+  }
+
+  function formatSize(bytes) {
+    if (bytes < 1024) { return bytes + ' B'; }
+    if (bytes < 1024 * 1024) { return (bytes / 1024).toFixed(1) + ' KB'; }
+    return (bytes / 1024 / 1024).toFixed(1) + ' MB';
+  }
+
+  function setError(input, message) {
+    var errorId = input.id + '-error';
+    var error = document.getElementById(errorId);
+    if (message) {
+      input.classList.add('border-red');
+      input.setAttribute('aria-invalid', 'true');
+      input.setAttribute('aria-describedby', errorId);
+      if (!error) {
+        error = document.createElement('p');
+        error.id = errorId;
+        error.className = 'error-message';
+        input.insertAdjacentElement('afterend', error);
+      }
+      error.textContent = message;
+    } else {
+      input.classList.remove('border-red');
+      input.removeAttribute('aria-invalid');
+      if (error) { error.remove(); }
+    }
+  }
+
+  function upload(file, list) {
+    var item = document.createElement('li');
+    item.className = 'file-item uploading';
+    item.setAttribute('data-file', file.name);
+    item.textContent = file.name + ' (' + formatSize(file.size) + ') - uploading 0%';
+    list.appendChild(item);
+
+    fetch('/api/uploads', {
+      method: 'POST',
+      headers: { 'X-File-Name': encodeURIComponent(file.name), 'Content-Type': file.type || 'application/octet-stream' },
+      body: file
+    }).then(function (response) {
+      if (!response.ok) { throw new Error('HTTP ' + response.status); }
+      item.className = 'file-item uploaded';
+      item.textContent = file.name + ' (' + formatSize(file.size) + ') - Uploaded';
+    }).catch(function () {
+      item.className = 'file-item failed';
+      item.textContent = file.name + ' (' + formatSize(file.size) + ') - Upload failed';
+    });
+  }
+
+  function openExternalPoForm() {
+    modal.classList.add('hidden');
+    var form = render('external-po-form-template');
+    var input = form.querySelector('#file-input');
+    var list = form.querySelector('#file-list');
+
+    form.querySelector('#upload-button').addEventListener('click', function () { input.click(); });
+    input.addEventListener('change', function () {
+      Array.prototype.forEach.call(input.files, function (file) { upload(file, list); });
+      input.value = '';
+    });
+
+    form.querySelector('#cancel-button').addEventListener('click', function () { form.remove(); });
+    form.querySelector('#next-button').addEventListener('click', function () {
+      var required = { 'po-number': 'External PO Number is required',
+                       'supplier-name': 'Supplier Name is required',
+                       'delivery-date': 'Delivery Date is required' };
+      var valid = true;
+      Object.keys(required).forEach(function (id) {
+        var field = form.querySelector('#' + id);
+        var empty = !field.value.trim();
+        setError(field, empty ? required[id] : null);
+        valid = valid && !empty;
+      });
+      if (valid) {
+        history.pushState({}, '', '/inventory/inbound/verify');
+        render('verify-step-template');
+      }
+    });
+  }
+
+  document.getElementById('new-unplanned-receipt').addEventListener('click', function () {
+    modal.classList.remove('hidden');
+  });
+
+  Array.prototype.forEach.call(modal.querySelectorAll('.option'), function (option) {
+    option.addEventListener('click', function () {
+      if (option.getAttribute('data-type') === 'external-po') {
+        openExternalPoForm();
+      } else {
+        modal.classList.add('hidden');
+      }
+    });
+  });
+})();